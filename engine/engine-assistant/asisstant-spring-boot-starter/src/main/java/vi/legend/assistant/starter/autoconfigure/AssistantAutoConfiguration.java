@@ -4,19 +4,31 @@ import jakarta.annotation.PostConstruct;
 import org.dromara.hutool.extra.spring.SpringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import vi.legend.assistant.core.exception.ErrorLogAggregator;
 import vi.legend.assistant.definition.domain.ErrorCodeMapper;
 import vi.legend.assistant.definition.function.ErrorCodeMapperBuilderCustomizer;
 import vi.legend.assistant.definition.support.ErrorCodeMapperBuilder;
+import vi.legend.assistant.definition.support.StackTraceRenderer;
 import vi.legend.assistant.starter.autoconfigure.customizer.StandardErrorCodeMapperBuilderCustomizer;
+import vi.legend.assistant.starter.autoconfigure.metrics.ErrorLogAggregatorMetrics;
+import vi.legend.assistant.starter.autoconfigure.metrics.ObjectPoolMetrics;
+import vi.legend.assistant.starter.autoconfigure.metrics.RestApiClientMetrics;
+import vi.legend.assistant.starter.properties.ExceptionProperties;
 
 import java.util.Iterator;
 import java.util.List;
 
 @AutoConfiguration
 @Import({SpringUtil.class})
+@EnableConfigurationProperties({ExceptionProperties.class})
 public class AssistantAutoConfiguration {
     private static final Logger log = LoggerFactory.getLogger(AssistantAutoConfiguration.class);
 
@@ -59,4 +71,48 @@ public class AssistantAutoConfiguration {
         log.debug("[Sanzee] |- Bean [ErrorCodeMapper] Auto Configure.");
         return mapper;
     }
+
+    @Bean
+    public StackTraceRenderer stackTraceRenderer(ExceptionProperties exceptionProperties) {
+        StackTraceRenderer renderer = StackTraceRenderer.configure(exceptionProperties.toOptions());
+        log.debug("[Sanzee] |- Bean [StackTrace Renderer] Auto Configure.");
+        return renderer;
+    }
+
+    @Bean(destroyMethod = "stop")
+    public ErrorLogAggregator errorLogAggregator(ExceptionProperties exceptionProperties) {
+        ErrorLogAggregator aggregator = ErrorLogAggregator.configure(exceptionProperties.getLog().toOptions());
+        log.debug("[Sanzee] |- Bean [Error Log Aggregator] Auto Configure.");
+        return aggregator;
+    }
+
+    @Configuration(
+            proxyBeanMethods = false
+    )
+    @ConditionalOnClass({MeterRegistry.class})
+    static class MetricsConfiguration {
+        MetricsConfiguration() {
+        }
+
+        @Bean
+        public MeterBinder errorLogAggregatorMetrics(ErrorLogAggregator errorLogAggregator) {
+            ErrorLogAggregatorMetrics metrics = new ErrorLogAggregatorMetrics(errorLogAggregator);
+            AssistantAutoConfiguration.log.trace("[Sanzee] |- Bean [Error Log Aggregator Metrics] Auto Configure.");
+            return metrics;
+        }
+
+        @Bean
+        public MeterBinder objectPoolMetrics() {
+            ObjectPoolMetrics metrics = new ObjectPoolMetrics();
+            AssistantAutoConfiguration.log.trace("[Sanzee] |- Bean [Object Pool Metrics] Auto Configure.");
+            return metrics;
+        }
+
+        @Bean
+        public MeterBinder restApiClientMetrics() {
+            RestApiClientMetrics metrics = new RestApiClientMetrics();
+            AssistantAutoConfiguration.log.trace("[Sanzee] |- Bean [Rest Api Client Metrics] Auto Configure.");
+            return metrics;
+        }
+    }
 }
@@ -4,15 +4,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import vi.legend.assistant.core.json.jackson2.support.EncodedResultRegistry;
+import vi.legend.assistant.core.json.jackson2.utils.Jackson2Utils;
+import vi.legend.assistant.definition.domain.ErrorCodeMapper;
+import vi.legend.assistant.definition.domain.Result;
 import vi.legend.assistant.starter.autoconfigure.customizer.Jackson2DefaultObjectMapperBuilderCustomizer;
+import vi.legend.assistant.starter.autoconfigure.customizer.Jackson2ThroughputObjectMapperBuilderCustomizer;
+import vi.legend.assistant.starter.properties.Jackson2Properties;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @AutoConfiguration
+@EnableConfigurationProperties({Jackson2Properties.class})
 public class Jackson2AutoConfiguration {
     private static final Logger log = LoggerFactory.getLogger(Jackson2AutoConfiguration.class);
 
@@ -37,10 +51,70 @@ public class Jackson2AutoConfiguration {
         return new MappingJackson2HttpMessageConverter(objectMapper);
     }
 
+    /**
+     * Mã hóa sẵn phản hồi của các Feedback đã đăng ký. Phụ thuộc vào ErrorCodeMapper để chắc chắn
+     * mọi Feedback tùy chỉnh đã được đăng ký trước khi mã hóa.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EncodedResultRegistry encodedResultRegistry(ObjectMapper objectMapper, ErrorCodeMapper errorCodeMapper) {
+        EncodedResultRegistry registry = new EncodedResultRegistry(objectMapper);
+        log.trace("[Herodotus] |- Bean [Encoded Result Registry] Auto Configure.");
+        return registry;
+    }
+
+    @Configuration(
+            proxyBeanMethods = false
+    )
+    @ConditionalOnProperty(
+            prefix = "sanzee.jackson",
+            name = "profile",
+            havingValue = "throughput"
+    )
+    static class ThroughputProfileConfiguration {
+        ThroughputProfileConfiguration() {
+        }
+
+        @PostConstruct
+        public void postConstruct() {
+            Jackson2AutoConfiguration.log.debug("[Herodotus] |- Profile [Jackson2 Throughput] Auto Configure.");
+        }
+
+        @Bean
+        public Jackson2ObjectMapperBuilderCustomizer throughputObjectMapperBuilderCustomizer() {
+            Jackson2ThroughputObjectMapperBuilderCustomizer customizer = new Jackson2ThroughputObjectMapperBuilderCustomizer();
+            Jackson2AutoConfiguration.log.debug("[Herodotus] |- Strategy [Jackson2 Throughput ObjectMapper Builder Customizer] Auto Configure.");
+            return customizer;
+        }
+
+        /**
+         * Chuẩn bị sẵn ObjectReader/ObjectWriter (và serializer/deserializer gốc bên trong) cho các kiểu đã khai báo,
+         * sau khi mọi singleton đã được tạo, để request đầu tiên không phải chịu chi phí xây dựng.
+         */
+        @Bean
+        public SmartInitializingSingleton jackson2PreWarmer(Jackson2Properties properties) {
+            Jackson2AutoConfiguration.log.trace("[Herodotus] |- Bean [Jackson2 Pre Warmer] Auto Configure.");
+            return () -> {
+                Set<Class<?>> types = new LinkedHashSet<>();
+                types.add(Result.class);
+                types.addAll(properties.getPreWarmTypes());
+                for (Class<?> type : types) {
+                    try {
+                        Jackson2Utils.getWriter(type);
+                        Jackson2Utils.getReader(type);
+                    } catch (RuntimeException e) {
+                        Jackson2AutoConfiguration.log.warn("[Herodotus] |- Can not pre-warm Jackson2 type [{}]: {}", type.getName(), e.getMessage());
+                    }
+                }
+                Jackson2AutoConfiguration.log.debug("[Herodotus] |- Jackson2 pre-warmed [{}] types.", types.size());
+            };
+        }
+    }
+
     @Configuration(
             proxyBeanMethods = false
     )
-    @ComponentScan({"cn.herodotus.engine.assistant.core.json.jackson2.utils"})
+    @ComponentScan({"vi.legend.assistant.core.json.jackson2.utils"})
     static class JacksonUtilsConfiguration {
         JacksonUtilsConfiguration() {
         }
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import vi.legend.assistant.core.json.jackson2.modules.EncapsulationClassJackson2Module;
+import vi.legend.assistant.core.json.jackson2.modules.ProtectedStringJackson2Module;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,7 +34,7 @@ public class Jackson2DefaultObjectMapperBuilderCustomizer implements BaseObjectM
      * - Tắt các tính năng: không thất bại khi gặp đối tượng rỗng (FAIL_ON_EMPTY_BEANS),
      *   không ghi ngày tháng dưới dạng dấu thời gian (WRITE_DATES_AS_TIMESTAMPS),
      *   và không thất bại khi gặp các thuộc tính không xác định (FAIL_ON_UNKNOWN_PROPERTIES).
-     * - Cài đặt các mô-đun bổ sung: EncapsulationClassJackson2Module, Jdk8Module, và JavaTimeModule.
+     * - Cài đặt các mô-đun bổ sung: EncapsulationClassJackson2Module, ProtectedStringJackson2Module, Jdk8Module, và JavaTimeModule.
      * - Sử dụng ServiceLoader để tự động tìm kiếm và cài đặt các mô-đun Jackson.
      *
      * @param builder Đối tượng Jackson2ObjectMapperBuilder cần được tùy chỉnh.
@@ -53,6 +54,7 @@ public class Jackson2DefaultObjectMapperBuilderCustomizer implements BaseObjectM
         builder.modulesToInstall((modules) -> {
             List<Module> install = new ArrayList(modules);
             install.add(new EncapsulationClassJackson2Module());
+            install.add(new ProtectedStringJackson2Module());
             install.add(new Jdk8Module());
             install.add(new JavaTimeModule());
             builder.modulesToInstall(this.toArray(install));
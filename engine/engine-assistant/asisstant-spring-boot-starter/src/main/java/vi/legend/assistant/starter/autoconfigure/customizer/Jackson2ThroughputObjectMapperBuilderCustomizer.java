@@ -0,0 +1,43 @@
+package vi.legend.assistant.starter.autoconfigure.customizer;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Lớp Jackson2ThroughputObjectMapperBuilderCustomizer áp dụng profile THROUGHPUT,
+ * chạy sau {@link Jackson2DefaultObjectMapperBuilderCustomizer}.
+ */
+public class Jackson2ThroughputObjectMapperBuilderCustomizer implements BaseObjectMapperBuilderCustomizer {
+
+    /**
+     * Constructor mặc định của lớp Jackson2ThroughputObjectMapperBuilderCustomizer.
+     */
+    public Jackson2ThroughputObjectMapperBuilderCustomizer() {
+    }
+
+    /**
+     * Phương thức customize tùy chỉnh Jackson2ObjectMapperBuilder bằng cách:
+     * - Tắt việc sắp xếp các mục trong Map theo khóa (ORDER_MAP_ENTRIES_BY_KEYS) ở mỗi lần serialize.
+     * - Cài đặt BlackbirdModule để truy cập thuộc tính qua LambdaMetafactory thay cho reflection.
+     *
+     * @param builder Đối tượng Jackson2ObjectMapperBuilder cần được tùy chỉnh.
+     */
+    @Override
+    public void customize(Jackson2ObjectMapperBuilder builder) {
+        builder.featuresToDisable(new Object[]{
+                SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS
+        });
+        builder.modulesToInstall((modules) -> modules.add(new BlackbirdModule()));
+    }
+
+    /**
+     * Phương thức getOrder trả về thứ tự ưu tiên, chạy sau customizer mặc định.
+     *
+     * @return Giá trị thứ tự ưu tiên, ở đây là 2.
+     */
+    @Override
+    public int getOrder() {
+        return 2;
+    }
+}
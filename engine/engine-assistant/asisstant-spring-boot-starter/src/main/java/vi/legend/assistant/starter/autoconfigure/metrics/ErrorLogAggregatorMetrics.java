@@ -0,0 +1,27 @@
+package vi.legend.assistant.starter.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import vi.legend.assistant.core.exception.ErrorLogAggregator;
+
+/**
+ * Xuất tổng số lỗi theo mã phản hồi của {@link ErrorLogAggregator} ra Micrometer dưới tên {@code sanzee.errors}.
+ * Không gắn thẻ đường dẫn để số chuỗi số liệu không phụ thuộc vào URL của yêu cầu.
+ */
+public class ErrorLogAggregatorMetrics implements MeterBinder {
+
+    private final ErrorLogAggregator errorLogAggregator;
+
+    public ErrorLogAggregatorMetrics(ErrorLogAggregator errorLogAggregator) {
+        this.errorLogAggregator = errorLogAggregator;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        errorLogAggregator.onNewCode(code -> FunctionCounter.builder("sanzee.errors", errorLogAggregator, aggregator -> aggregator.count(code))
+                .description("Errors resolved by the global exception handler")
+                .tag("code", String.valueOf(code))
+                .register(registry));
+    }
+}
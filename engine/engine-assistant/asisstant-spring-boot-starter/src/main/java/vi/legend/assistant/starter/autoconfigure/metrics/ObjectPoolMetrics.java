@@ -0,0 +1,111 @@
+package vi.legend.assistant.starter.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import vi.legend.assistant.definition.support.AbstractObjectPool;
+import vi.legend.assistant.definition.support.ObjectPoolRegistry;
+import vi.legend.assistant.definition.support.PoolStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Xuất số liệu của các {@link AbstractObjectPool} trong {@link ObjectPoolRegistry} ra Micrometer, gắn nhãn
+ * {@code pool} theo tên bể. Các bể được tạo sau khi gắn cũng được xuất, số liệu của bể bị đóng được gỡ bỏ.
+ * <p>
+ * Mỗi {@link MeterRegistry} được gắn có thời gian chờ riêng. {@link #close()} (gọi khi ngữ cảnh ứng dụng đóng) bỏ các
+ * hàm đã đăng ký với {@link ObjectPoolRegistry} và gỡ số liệu, để registry của ngữ cảnh cũ không bị giữ lại.
+ */
+public class ObjectPoolMetrics implements MeterBinder, AutoCloseable {
+
+    private final List<Binding> bindings = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Binding binding = new Binding(registry);
+        bindings.add(binding);
+        ObjectPoolRegistry.onRegister(binding.onRegister);
+        ObjectPoolRegistry.onUnregister(binding.onUnregister);
+    }
+
+    @Override
+    public void close() {
+        bindings.forEach(Binding::close);
+        bindings.clear();
+    }
+
+    /**
+     * Số liệu của các bể trên một {@link MeterRegistry}.
+     */
+    private static final class Binding {
+
+        private final MeterRegistry registry;
+        private final Map<AbstractObjectPool<?>, Bound> pools = new ConcurrentHashMap<>();
+        private final Consumer<AbstractObjectPool<?>> onRegister = this::bind;
+        private final Consumer<AbstractObjectPool<?>> onUnregister = this::unbind;
+
+        private Binding(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        private void bind(AbstractObjectPool<?> pool) {
+            Tags tags = Tags.of("pool", pool.getName());
+            PoolStatistics statistics = pool.getStatistics();
+
+            List<Meter> meters = new ArrayList<>(List.of(
+                    Gauge.builder("sanzee.pool.active", pool, AbstractObjectPool::getNumActive)
+                            .description("Objects currently borrowed from the pool").tags(tags).register(registry),
+                    Gauge.builder("sanzee.pool.idle", pool, AbstractObjectPool::getNumIdle)
+                            .description("Idle objects in the pool").tags(tags).register(registry),
+                    Gauge.builder("sanzee.pool.max.idle", pool, AbstractObjectPool::getMaxIdle)
+                            .description("Current maxIdle of the pool").tags(tags).register(registry),
+                    Gauge.builder("sanzee.pool.min.idle", pool, AbstractObjectPool::getMinIdle)
+                            .description("Current minIdle of the pool").tags(tags).register(registry),
+                    FunctionCounter.builder("sanzee.pool.created", statistics, PoolStatistics::getCreatedCount)
+                            .description("Objects created by the pool").tags(tags).register(registry),
+                    FunctionCounter.builder("sanzee.pool.destroyed", statistics, PoolStatistics::getDestroyedCount)
+                            .description("Objects destroyed by the pool").tags(tags).register(registry),
+                    FunctionCounter.builder("sanzee.pool.exhausted", statistics, PoolStatistics::getExhaustedCount)
+                            .description("Borrow attempts that failed because the pool was exhausted").tags(tags).register(registry)));
+
+            Timer wait = Timer.builder("sanzee.pool.borrow.wait")
+                    .description("Time spent waiting to borrow an object")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            meters.add(wait);
+            LongConsumer recorder = nanos -> wait.record(nanos, TimeUnit.NANOSECONDS);
+            statistics.addWaitRecorder(recorder);
+            pools.put(pool, new Bound(recorder, meters));
+        }
+
+        private void unbind(AbstractObjectPool<?> pool) {
+            Bound bound = pools.remove(pool);
+            if (bound == null) {
+                return;
+            }
+            pool.getStatistics().removeWaitRecorder(bound.recorder());
+            bound.meters().forEach(registry::remove);
+        }
+
+        private void close() {
+            ObjectPoolRegistry.removeListener(onRegister);
+            ObjectPoolRegistry.removeListener(onUnregister);
+            pools.keySet().forEach(this::unbind);
+        }
+    }
+
+    private record Bound(LongConsumer recorder, List<Meter> meters) {
+    }
+}
@@ -0,0 +1,26 @@
+package vi.legend.assistant.starter.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import vi.legend.assistant.definition.support.RestApiClients;
+
+/**
+ * Xuất số liệu kết nối của các client HTTP dùng chung bởi {@link vi.legend.assistant.definition.support.RestApiTemplate}.
+ */
+public class RestApiClientMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sanzee.http.client.clients", () -> RestApiClients.getStatistics().clients())
+                .description("Shared HTTP clients created for RestApiTemplate").register(registry);
+        Gauge.builder("sanzee.http.client.connections", () -> RestApiClients.getStatistics().connections())
+                .description("Open connections in the shared connection pool").register(registry);
+        Gauge.builder("sanzee.http.client.connections.idle", () -> RestApiClients.getStatistics().idleConnections())
+                .description("Idle keep-alive connections in the shared connection pool").register(registry);
+        Gauge.builder("sanzee.http.client.calls.running", () -> RestApiClients.getStatistics().runningCalls())
+                .description("Asynchronous calls currently running").register(registry);
+        Gauge.builder("sanzee.http.client.calls.queued", () -> RestApiClients.getStatistics().queuedCalls())
+                .description("Asynchronous calls waiting for a dispatcher slot").register(registry);
+    }
+}
@@ -0,0 +1,118 @@
+package vi.legend.assistant.starter.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import vi.legend.assistant.core.exception.ErrorLogAggregator;
+import vi.legend.assistant.definition.support.StackTraceRenderer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình xử lý ngoại lệ của Assistant.
+ */
+@ConfigurationProperties(prefix = "sanzee.exception")
+public class ExceptionProperties {
+
+    /**
+     * Chế độ production: phản hồi lỗi không chứa stack trace, chỉ có mã tương quan để đối chiếu với log.
+     */
+    private boolean production = false;
+
+    /**
+     * Số frame tối đa của stack trace trong phản hồi, nhỏ hơn hoặc bằng 0 là không giới hạn.
+     */
+    private int stackTraceDepth = StackTraceRenderer.Options.DEFAULT_DEPTH;
+
+    /**
+     * Tiền tố package của các frame framework bị bỏ khỏi stack trace.
+     */
+    private List<String> excludedPackages = new ArrayList<>(StackTraceRenderer.Options.DEFAULT_EXCLUDED_PACKAGES);
+
+    private Log log = new Log();
+
+    public boolean isProduction() {
+        return production;
+    }
+
+    public void setProduction(boolean production) {
+        this.production = production;
+    }
+
+    public int getStackTraceDepth() {
+        return stackTraceDepth;
+    }
+
+    public void setStackTraceDepth(int stackTraceDepth) {
+        this.stackTraceDepth = stackTraceDepth;
+    }
+
+    public List<String> getExcludedPackages() {
+        return excludedPackages;
+    }
+
+    public void setExcludedPackages(List<String> excludedPackages) {
+        this.excludedPackages = excludedPackages;
+    }
+
+    public Log getLog() {
+        return log;
+    }
+
+    public void setLog(Log log) {
+        this.log = log;
+    }
+
+    public StackTraceRenderer.Options toOptions() {
+        return new StackTraceRenderer.Options(production, stackTraceDepth, excludedPackages);
+    }
+
+    /**
+     * Cấu hình ghi log lỗi.
+     */
+    public static class Log {
+
+        /**
+         * Gộp log lỗi theo (mã phản hồi, đường dẫn): mỗi cửa sổ chỉ ghi một mẫu đầy đủ và một dòng tổng hợp.
+         */
+        private boolean aggregated = false;
+
+        /**
+         * Độ dài cửa sổ gộp log.
+         */
+        private Duration window = ErrorLogAggregator.Options.DEFAULT_WINDOW;
+
+        /**
+         * Số cặp (mã phản hồi, đường dẫn) tối đa được theo dõi riêng trong một cửa sổ, vượt quá sẽ được gộp chung.
+         */
+        private int maxKeys = ErrorLogAggregator.Options.DEFAULT_MAX_KEYS;
+
+        public boolean isAggregated() {
+            return aggregated;
+        }
+
+        public void setAggregated(boolean aggregated) {
+            this.aggregated = aggregated;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public ErrorLogAggregator.Options toOptions() {
+            return new ErrorLogAggregator.Options(aggregated, window, maxKeys);
+        }
+    }
+}
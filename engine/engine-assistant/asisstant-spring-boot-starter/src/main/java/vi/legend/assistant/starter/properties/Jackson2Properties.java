@@ -0,0 +1,55 @@
+package vi.legend.assistant.starter.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình Jackson2 của Assistant.
+ */
+@ConfigurationProperties(prefix = "sanzee.jackson")
+public class Jackson2Properties {
+
+    /**
+     * Profile cấu hình ObjectMapper, mặc định là {@link Profile#CANONICAL}.
+     */
+    private Profile profile = Profile.CANONICAL;
+
+    /**
+     * Các kiểu DTO được chuẩn bị sẵn serializer/deserializer khi khởi động (chỉ dùng với profile THROUGHPUT).
+     * {@link vi.legend.assistant.definition.domain.Result} luôn được chuẩn bị.
+     */
+    private List<Class<?>> preWarmTypes = new ArrayList<>();
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(Profile profile) {
+        this.profile = profile;
+    }
+
+    public List<Class<?>> getPreWarmTypes() {
+        return preWarmTypes;
+    }
+
+    public void setPreWarmTypes(List<Class<?>> preWarmTypes) {
+        this.preWarmTypes = preWarmTypes;
+    }
+
+    /**
+     * Profile cấu hình ObjectMapper.
+     */
+    public enum Profile {
+        /**
+         * Đầu ra ổn định: các mục của Map được sắp xếp theo khóa.
+         */
+        CANONICAL,
+        /**
+         * Ưu tiên thông lượng: không sắp xếp Map, dùng module Blackbird thay cho reflection
+         * và chuẩn bị sẵn serializer cho các kiểu đã khai báo.
+         */
+        THROUGHPUT
+    }
+}
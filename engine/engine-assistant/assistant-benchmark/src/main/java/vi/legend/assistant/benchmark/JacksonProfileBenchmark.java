@@ -0,0 +1,211 @@
+package vi.legend.assistant.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import vi.legend.assistant.starter.autoconfigure.customizer.Jackson2DefaultObjectMapperBuilderCustomizer;
+import vi.legend.assistant.starter.autoconfigure.customizer.Jackson2ThroughputObjectMapperBuilderCustomizer;
+import vi.legend.assistant.starter.properties.Jackson2Properties;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh hai profile {@link Jackson2Properties.Profile}: ObjectMapper được dựng bằng các customizer giống như khi
+ * ứng dụng khởi động, reader/writer được chuẩn bị sẵn như bước pre-warm.
+ * <p>
+ * Chạy: {@code java -jar target/benchmarks.jar JacksonProfileBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonProfileBenchmark {
+
+    @Param({"CANONICAL", "THROUGHPUT"})
+    private Jackson2Properties.Profile profile;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Order order;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new Jackson2DefaultObjectMapperBuilderCustomizer().customize(builder);
+        if (profile == Jackson2Properties.Profile.THROUGHPUT) {
+            new Jackson2ThroughputObjectMapperBuilderCustomizer().customize(builder);
+        }
+        ObjectMapper objectMapper = builder.build();
+
+        writer = objectMapper.writerFor(Order.class);
+        reader = objectMapper.readerFor(Order.class);
+        order = Order.sample();
+        json = writer.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserialize() throws Exception {
+        return reader.readValue(json);
+    }
+
+    /**
+     * DTO mẫu có kiểu thời gian, số thập phân, danh sách và Map.
+     */
+    public static class Order {
+
+        private Long id;
+        private String code;
+        private String customer;
+        private BigDecimal amount;
+        private LocalDateTime createTime;
+        private List<Item> items;
+        private Map<String, String> attributes;
+
+        static Order sample() {
+            Order order = new Order();
+            order.setId(1024L);
+            order.setCode("SO-2024-000128");
+            order.setCustomer("Nguyễn Văn A");
+            order.setAmount(new BigDecimal("1250000.50"));
+            order.setCreateTime(LocalDateTime.of(2024, 8, 1, 9, 30));
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Item item = new Item();
+                item.setSku("SKU-" + i);
+                item.setName("Sản phẩm " + i);
+                item.setQuantity(i + 1);
+                item.setPrice(new BigDecimal("125000.05"));
+                items.add(item);
+            }
+            order.setItems(items);
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < 10; i++) {
+                attributes.put("attribute" + (10 - i), "value" + i);
+            }
+            order.setAttributes(attributes);
+            return order;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(String customer) {
+            this.customer = customer;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public LocalDateTime getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(LocalDateTime createTime) {
+            this.createTime = createTime;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+    }
+
+    public static class Item {
+
+        private String sku;
+        private String name;
+        private Integer quantity;
+        private BigDecimal price;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
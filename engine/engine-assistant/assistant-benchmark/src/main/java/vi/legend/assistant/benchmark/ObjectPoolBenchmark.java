@@ -0,0 +1,123 @@
+package vi.legend.assistant.benchmark;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.ObjectPool;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import vi.legend.assistant.definition.domain.Pool;
+import vi.legend.assistant.definition.support.ThreadCachedObjectPool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh {@link ThreadCachedObjectPool} với {@link GenericObjectPool} trên chu trình mượn - dùng - trả với 1, 8 và
+ * 64 luồng, bể có {@code maxTotal} đối tượng.
+ * <p>
+ * Chạy: {@code java -jar target/benchmarks.jar ObjectPoolBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectPoolBenchmark {
+
+    @Param({"GENERIC", "THREAD_CACHED"})
+    private Pool.Type type;
+
+    @Param({"8", "64"})
+    private int maxTotal;
+
+    private ObjectPool<StringBuilder> objectPool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Pool pool = new Pool();
+        pool.setMaxTotal(maxTotal);
+        pool.setMaxIdle(maxTotal);
+        pool.setType(type);
+
+        if (type == Pool.Type.THREAD_CACHED) {
+            objectPool = new ThreadCachedObjectPool<>(new StringBuilderFactory(), pool);
+        } else {
+            GenericObjectPoolConfig<StringBuilder> config = new GenericObjectPoolConfig<>();
+            config.setMaxTotal(pool.getMaxTotal());
+            config.setMaxIdle(pool.getMaxIdle());
+            config.setMinIdle(pool.getMinIdle());
+            config.setMaxWait(pool.getMaxWait());
+            config.setLifo(pool.getLifo());
+            config.setBlockWhenExhausted(pool.getBlockWhenExhausted());
+            objectPool = new GenericObjectPool<>(new StringBuilderFactory(), config);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        objectPool.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int borrowAndReturn1() throws Exception {
+        return borrowAndReturn();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int borrowAndReturn8() throws Exception {
+        return borrowAndReturn();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int borrowAndReturn64() throws Exception {
+        return borrowAndReturn();
+    }
+
+    private int borrowAndReturn() throws Exception {
+        StringBuilder builder = objectPool.borrowObject();
+        try {
+            return builder.append("sanzee").length();
+        } finally {
+            objectPool.returnObject(builder);
+        }
+    }
+
+    /**
+     * Đối tượng được bể quản lý, được làm rỗng mỗi khi trả lại.
+     */
+    private static class StringBuilderFactory extends BasePooledObjectFactory<StringBuilder> {
+
+        @Override
+        public StringBuilder create() {
+            return new StringBuilder(64);
+        }
+
+        @Override
+        public PooledObject<StringBuilder> wrap(StringBuilder builder) {
+            return new DefaultPooledObject<>(builder);
+        }
+
+        @Override
+        public void passivateObject(PooledObject<StringBuilder> pooledObject) {
+            pooledObject.getObject().setLength(0);
+        }
+    }
+}
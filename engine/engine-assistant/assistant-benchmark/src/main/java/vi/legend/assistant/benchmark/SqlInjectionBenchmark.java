@@ -0,0 +1,70 @@
+package vi.legend.assistant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import vi.legend.assistant.core.utils.protect.SqlInjectionUtils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * So sánh bộ quét có lọc từ khóa của {@link SqlInjectionUtils} với cách cũ: chuyển chuỗi sang chữ thường rồi chạy
+ * biểu thức chính quy đầy đủ trên mọi giá trị.
+ * <p>
+ * Chạy: {@code java -jar target/benchmarks.jar SqlInjectionBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlInjectionBenchmark {
+
+    // Biểu thức chính quy trước khi có bước lọc từ khóa, giữ nguyên để làm mốc so sánh.
+    private static final Pattern LEGACY_PATTERN = Pattern.compile("\\b(and|or)\\b.{1,6}?(=|>|<|\\bin\\b|\\blike\\b)|\\/\\*.+?\\*\\/|<\\s*script\\b|\\bEXEC\\b|UNION.+?SELECT|UPDATE.+?SET|INSERT\\s+INTO.+?VALUES|(SELECT|DELETE).+?FROM|(CREATE|ALTER|DROP|TRUNCATE)\\s+(TABLE|DATABASE)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * clean: giá trị thông thường; keyword: có từ khóa nhưng không phải tấn công; attack: bị phát hiện.
+     */
+    @Param({"clean", "keyword", "attack"})
+    private String input;
+
+    private String value;
+    private String query;
+
+    @Setup
+    public void setup() {
+        value = switch (input) {
+            case "keyword" -> "Please select the delivery window and update the address before Friday";
+            case "attack" -> "1' or 1=1; drop table users --";
+            default -> "Nguyễn Văn A, 123 Lê Lợi, Quận 1, TP. Hồ Chí Minh, giao hàng trong giờ hành chính";
+        };
+        query = "page=1&size=20&sort=createTime&keyword=" + value.replace(' ', '+');
+    }
+
+    @Benchmark
+    public boolean legacyValue() {
+        return LEGACY_PATTERN.matcher(value.toLowerCase(Locale.ROOT)).find();
+    }
+
+    @Benchmark
+    public boolean scannerValue() {
+        return SqlInjectionUtils.checkForValue(value);
+    }
+
+    @Benchmark
+    public boolean scannerQuery() {
+        return SqlInjectionUtils.checkForGet(query);
+    }
+}
@@ -0,0 +1,18 @@
+package vi.legend.assistant.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation @SqlChecked đánh dấu trường kiểu String (hoặc tập hợp String) cần được kiểm tra SQL Injection
+ * ngay khi Jackson deserialize request body.
+ *
+ * - Nếu giá trị bị nghi ngờ, quá trình deserialize dừng lại với
+ *   {@link vi.legend.assistant.core.exception.protect.SqlInjectionDetectedException}.
+ *
+ * - Các trường không được đánh dấu không phải chịu chi phí kiểm tra.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@Documented
+public @interface SqlChecked {
+}
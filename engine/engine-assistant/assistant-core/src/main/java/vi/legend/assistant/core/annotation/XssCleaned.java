@@ -0,0 +1,18 @@
+package vi.legend.assistant.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation @XssCleaned đánh dấu trường kiểu String (hoặc tập hợp String) cần được làm sạch XSS
+ * ngay khi Jackson deserialize request body.
+ *
+ * - Chỉ các trường được đánh dấu mới đi qua {@link vi.legend.assistant.core.utils.protect.XssUtils},
+ *   các trường còn lại dùng deserializer mặc định của Jackson.
+ *
+ * - Có thể dùng cùng với {@link SqlChecked}, khi đó giá trị được kiểm tra SQL Injection trước rồi mới làm sạch XSS.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@Documented
+public @interface XssCleaned {
+}
@@ -0,0 +1,246 @@
+package vi.legend.assistant.core.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Gộp log lỗi của {@link GlobalExceptionHandler} theo cặp (mã phản hồi, đường dẫn).
+ * <p>
+ * Trong mỗi cửa sổ thời gian, chỉ lỗi đầu tiên của mỗi cặp được ghi log đầy đủ, các lỗi sau chỉ tăng bộ đếm.
+ * Cuối mỗi cửa sổ một dòng tổng hợp được ghi cho các cặp có lỗi bị gộp, kèm tối đa {@link #MAX_CORRELATION_IDS} mã
+ * tương quan của các lỗi đó để mã trả cho client vẫn tra được trong log. Bộ đếm không dùng khóa ({@link LongAdder},
+ * {@link AtomicLong}) và số cặp trong một cửa sổ được giới hạn: khi vượt quá, các đường dẫn mới được gộp chung vào
+ * đường dẫn {@link #OVERFLOW_PATH}. Mỗi cửa sổ bắt đầu với danh sách cặp rỗng, nên giới hạn không giữ lại qua các cửa
+ * sổ. Lỗi được ghi nhận đúng lúc chuyển cửa sổ có thể không xuất hiện trong dòng tổng hợp.
+ * <p>
+ * Tổng số lỗi theo mã phản hồi luôn được đếm (kể cả khi tắt chế độ gộp) và giữ suốt vòng đời ứng dụng để xuất ra
+ * metrics. Metrics không gắn theo đường dẫn vì đường dẫn thực (ví dụ {@code /users/123}) làm số chuỗi số liệu tăng
+ * không giới hạn.
+ */
+public final class ErrorLogAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorLogAggregator.class);
+
+    public static final String OVERFLOW_PATH = "*";
+    public static final int MAX_CORRELATION_IDS = 20;
+
+    private static volatile ErrorLogAggregator instance = new ErrorLogAggregator(Options.disabled());
+
+    private final Options options;
+    private volatile Map<Key, Window> windows = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> totals = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<Integer>> listeners = new CopyOnWriteArrayList<>();
+    private volatile ScheduledExecutorService scheduler;
+
+    private ErrorLogAggregator(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * Lấy bộ gộp log đang dùng.
+     * @return ErrorLogAggregator hiện tại.
+     */
+    public static ErrorLogAggregator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Thay cấu hình. Bộ gộp cũ được dừng sau khi ghi tổng hợp lần cuối.
+     * @param options Cấu hình mới.
+     * @return ErrorLogAggregator mới, đã được khởi động nếu bật.
+     */
+    public static synchronized ErrorLogAggregator configure(Options options) {
+        ErrorLogAggregator previous = instance;
+        ErrorLogAggregator aggregator = new ErrorLogAggregator(options);
+        aggregator.start();
+        instance = aggregator;
+        previous.stop();
+        return aggregator;
+    }
+
+    public boolean isEnabled() {
+        return options.enabled();
+    }
+
+    /**
+     * Ghi nhận một lỗi.
+     * @param code Mã phản hồi.
+     * @param path Đường dẫn yêu cầu.
+     * @param correlationId Mã tương quan trả cho client, có thể null. Được ghi trong dòng tổng hợp nếu lỗi bị gộp.
+     * @return True nếu cần ghi log đầy đủ: chế độ gộp tắt, hoặc đây là lỗi đầu tiên của cặp trong cửa sổ hiện tại.
+     */
+    public boolean record(int code, String path, String correlationId) {
+        total(code).increment();
+        if (!options.enabled()) {
+            return true;
+        }
+        return window(new Key(code, path != null ? path : OVERFLOW_PATH)).record(correlationId);
+    }
+
+    private LongAdder total(int code) {
+        LongAdder total = totals.get(code);
+        if (total != null) {
+            return total;
+        }
+        LongAdder created = new LongAdder();
+        total = totals.putIfAbsent(code, created);
+        if (total == null) {
+            listeners.forEach(listener -> listener.accept(code));
+            return created;
+        }
+        return total;
+    }
+
+    private Window window(Key key) {
+        Map<Key, Window> current = windows;
+        Window window = current.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (current.size() >= options.maxKeys() && !OVERFLOW_PATH.equals(key.path())) {
+            return window(new Key(key.code(), OVERFLOW_PATH));
+        }
+        return current.computeIfAbsent(key, k -> new Window());
+    }
+
+    /**
+     * Ghi tổng hợp các lỗi bị gộp trong cửa sổ vừa qua và bắt đầu cửa sổ mới.
+     */
+    public void summarize() {
+        Map<Key, Window> previous = windows;
+        windows = new ConcurrentHashMap<>();
+        previous.forEach((key, window) -> {
+            long suppressed = window.count.get() - 1;
+            if (suppressed <= 0) {
+                return;
+            }
+            List<String> correlationIds = window.correlationIds(suppressed);
+            if (correlationIds.isEmpty()) {
+                log.error("[Herodotus] |- Global Exception Handler, [{}] more errors with code [{}] at [{}] in the last [{}].",
+                        suppressed, key.code(), key.path(), options.window());
+            } else {
+                log.error("[Herodotus] |- Global Exception Handler, [{}] more errors with code [{}] at [{}] in the last [{}], Correlation Ids : {}.",
+                        suppressed, key.code(), key.path(), options.window(), correlationIds);
+            }
+        });
+    }
+
+    /**
+     * Đăng ký hàm được gọi khi có mã phản hồi mới, dùng cho metrics.
+     * Hàm cũng được gọi ngay cho các mã đã có.
+     * @param listener Hàm nhận mã mới.
+     */
+    public void onNewCode(Consumer<Integer> listener) {
+        listeners.add(listener);
+        totals.keySet().forEach(listener);
+    }
+
+    /**
+     * Tổng số lỗi của một mã phản hồi từ khi khởi động.
+     * @param code Mã phản hồi.
+     * @return Tổng số lỗi.
+     */
+    public long count(int code) {
+        LongAdder total = totals.get(code);
+        return total != null ? total.sum() : 0L;
+    }
+
+    private void start() {
+        if (!options.enabled()) {
+            return;
+        }
+        long period = Math.max(options.window().toMillis(), 1L);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sanzee-error-log-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::summarize, period, period, TimeUnit.MILLISECONDS);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Dừng bộ gộp, ghi tổng hợp lần cuối.
+     */
+    public void stop() {
+        ScheduledExecutorService executor = this.scheduler;
+        if (executor != null) {
+            this.scheduler = null;
+            executor.shutdownNow();
+            summarize();
+        }
+    }
+
+    /**
+     * Cặp (mã phản hồi, đường dẫn).
+     */
+    public record Key(int code, String path) {
+    }
+
+    /**
+     * Bộ đếm và các mã tương quan bị gộp của một cặp trong một cửa sổ.
+     */
+    private static final class Window {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicReferenceArray<String> correlationIds = new AtomicReferenceArray<>(MAX_CORRELATION_IDS);
+
+        private boolean record(String correlationId) {
+            long index = count.getAndIncrement();
+            if (index == 0) {
+                return true;
+            }
+            if (correlationId != null && !correlationId.isBlank() && index <= MAX_CORRELATION_IDS) {
+                correlationIds.set((int) index - 1, correlationId);
+            }
+            return false;
+        }
+
+        private List<String> correlationIds(long suppressed) {
+            int size = (int) Math.min(suppressed, MAX_CORRELATION_IDS);
+            List<String> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String id = correlationIds.get(i);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Cấu hình của ErrorLogAggregator.
+     *
+     * @param enabled Bật chế độ gộp log.
+     * @param window  Độ dài cửa sổ, mỗi cửa sổ ghi một mẫu đầy đủ cho mỗi cặp và một dòng tổng hợp.
+     * @param maxKeys Số cặp (mã phản hồi, đường dẫn) tối đa được theo dõi riêng trong một cửa sổ.
+     */
+    public record Options(boolean enabled, Duration window, int maxKeys) {
+
+        public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+        public static final int DEFAULT_MAX_KEYS = 1000;
+
+        public Options {
+            window = window != null ? window : DEFAULT_WINDOW;
+        }
+
+        public static Options disabled() {
+            return new Options(false, DEFAULT_WINDOW, DEFAULT_MAX_KEYS);
+        }
+    }
+}
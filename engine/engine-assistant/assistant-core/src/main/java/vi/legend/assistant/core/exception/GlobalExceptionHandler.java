@@ -9,40 +9,108 @@ import vi.legend.assistant.definition.constants.ErrorCodes;
 import vi.legend.assistant.definition.domain.Feedback;
 import vi.legend.assistant.definition.domain.Result;
 import vi.legend.assistant.definition.exception.SanzeeException;
+import vi.legend.assistant.definition.support.StackTraceRenderer;
 
 public class GlobalExceptionHandler {
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     private static final Map<String, Feedback> EXCEPTION_DICTIONARY = new HashMap();
 
+    /**
+     * Feedback theo lớp ngoại lệ. Mỗi lớp chỉ được tra một lần: đi ngược chuỗi lớp cha, tại mỗi lớp tra theo
+     * tên đầy đủ rồi đến tên ngắn trong EXCEPTION_DICTIONARY. Kết quả được gắn với chính lớp đó qua ClassValue,
+     * không giữ ClassLoader của ứng dụng khác.
+     */
+    private static final ClassValue<Feedback> FEEDBACKS = new ClassValue<>() {
+        @Override
+        protected Feedback computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                Feedback feedback = EXCEPTION_DICTIONARY.get(current.getName());
+                if (feedback == null && StringUtils.isNotEmpty(current.getSimpleName())) {
+                    feedback = EXCEPTION_DICTIONARY.get(current.getSimpleName());
+                }
+                if (feedback != null) {
+                    return feedback;
+                }
+            }
+            log.warn("[Herodotus] |- Global Exception Handler,  Can not find the exception [{}] in dictionary, please do optimize ", type.getName());
+            return null;
+        }
+    };
+
     public GlobalExceptionHandler() {
     }
 
     public static Result<String> resolveException(Exception ex, String path) {
         log.trace("[Herodotus] |- Global Exception Handler, Path : [{}], Exception：", path, ex);
         Result result;
-        if (ex instanceof SanzeeException exception) {
+        SanzeeException exception = findSanzeeException(ex);
+        if (exception != null) {
             result = exception.getResult();
             result.path(path);
-            log.error("[Herodotus] |- Global Exception Handler, Error is : {}", result);
+            correlate(result);
+            logError(result, ex);
             return result;
         } else {
-            result = Result.failure();
-            String exceptionName = ex.getClass().getSimpleName();
-            if (StringUtils.isNotEmpty(exceptionName) && EXCEPTION_DICTIONARY.containsKey(exceptionName)) {
-                Feedback feedback = (Feedback)EXCEPTION_DICTIONARY.get(exceptionName);
-                result = Result.failure(feedback, exceptionName);
-            } else {
-                log.warn("[Herodotus] |- Global Exception Handler,  Can not find the exception name [{}] in dictionary, please do optimize ", exceptionName);
-            }
+            Feedback feedback = FEEDBACKS.get(ex.getClass());
+            result = feedback != null ? Result.failure(feedback, ex.getClass().getSimpleName()) : Result.failure();
 
             result.path(path);
-            result.stackTrace(ex.getStackTrace());
+            result.stackTrace(StackTraceRenderer.getInstance().render(ex));
             result.detail(ex.getMessage());
-            log.error("[Herodotus] |- Global Exception Handler, Error is : {}", result);
+            correlate(result);
+            logError(result, ex);
             return result;
         }
     }
 
+    /**
+     * Ở chế độ production, phản hồi không chứa stack trace. Mã tương quan (dùng traceId nếu đã có) được trả về
+     * cho client và được ghi kèm stack trace đầy đủ vào log để đối chiếu.
+     */
+    private static void correlate(Result<?> result) {
+        StackTraceRenderer renderer = StackTraceRenderer.getInstance();
+        if (renderer.isProduction() && StringUtils.isBlank(result.getTraceId())) {
+            result.traceId(renderer.correlationId());
+        }
+    }
+
+    /**
+     * Ghi log lỗi. Khi bật chế độ gộp log, mỗi cặp (mã phản hồi, đường dẫn) chỉ được ghi một mẫu đầy đủ
+     * trong mỗi cửa sổ, các lỗi còn lại được đếm và ghi tổng hợp bởi {@link ErrorLogAggregator}, kèm mã tương quan của
+     * chúng. Dòng riêng cho từng lỗi bị gộp chỉ được ghi ở mức debug.
+     */
+    private static void logError(Result<?> result, Exception ex) {
+        if (!ErrorLogAggregator.getInstance().record(result.getCode(), result.getPath(), result.getTraceId())) {
+            if (log.isDebugEnabled() && StringUtils.isNotBlank(result.getTraceId())) {
+                log.debug("[Herodotus] |- Global Exception Handler, Error code : [{}] at [{}], Correlation Id : [{}], stack trace aggregated.",
+                        result.getCode(), result.getPath(), result.getTraceId());
+            }
+            return;
+        }
+
+        if (StackTraceRenderer.getInstance().isProduction()) {
+            log.error("[Herodotus] |- Global Exception Handler, Error is : {}, Correlation Id : [{}]", result, result.getTraceId(), ex);
+        } else {
+            log.error("[Herodotus] |- Global Exception Handler, Error is : {}", result);
+        }
+    }
+
+    /**
+     * Jackson và Spring bọc ngoại lệ ném ra trong lúc deserialize (ví dụ từ {@code @SqlChecked}),
+     * nên cần tìm ngoại lệ của hệ thống trong chuỗi nguyên nhân.
+     */
+    private static SanzeeException findSanzeeException(Throwable ex) {
+        Throwable current = ex;
+        int depth = 0;
+        while (current != null && depth++ < 16) {
+            if (current instanceof SanzeeException exception) {
+                return exception;
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+
     static {
         EXCEPTION_DICTIONARY.put("AccessDeniedException", ErrorCodes.ACCESS_DENIED);
         EXCEPTION_DICTIONARY.put("BadSqlGrammarException", ErrorCodes.BAD_SQL_GRAMMAR);
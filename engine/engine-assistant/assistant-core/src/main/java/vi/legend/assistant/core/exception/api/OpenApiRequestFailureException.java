@@ -1,5 +1,6 @@
 package vi.legend.assistant.core.exception.api;
 
+import vi.legend.assistant.definition.constants.ErrorCodes;
 import vi.legend.assistant.definition.domain.Feedback;
 import vi.legend.assistant.definition.exception.PlatformRuntimeException;
 
@@ -24,6 +25,6 @@ public class OpenApiRequestFailureException extends PlatformRuntimeException {
     }
 
     public Feedback getFeedback() {
-        return super.getFeedback();
+        return ErrorCodes.OPEN_API_REQUEST_FAILURE;
     }
 }
@@ -0,0 +1,34 @@
+package vi.legend.assistant.core.exception.protect;
+
+import vi.legend.assistant.definition.constants.ErrorCodes;
+import vi.legend.assistant.definition.domain.Feedback;
+import vi.legend.assistant.definition.exception.PlatformRuntimeException;
+
+public class SqlInjectionDetectedException extends PlatformRuntimeException {
+    public SqlInjectionDetectedException() {
+    }
+
+    public SqlInjectionDetectedException(String message) {
+        super(message);
+    }
+
+    public SqlInjectionDetectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public SqlInjectionDetectedException(Throwable cause) {
+        super(cause);
+    }
+
+    protected SqlInjectionDetectedException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+
+    public SqlInjectionDetectedException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
+
+    public Feedback getFeedback() {
+        return ErrorCodes.SQL_INJECTION_REQUEST;
+    }
+}
@@ -0,0 +1,85 @@
+package vi.legend.assistant.core.json.jackson2.deserialzer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import vi.legend.assistant.core.annotation.SqlChecked;
+import vi.legend.assistant.core.annotation.XssCleaned;
+import vi.legend.assistant.core.exception.protect.SqlInjectionDetectedException;
+import vi.legend.assistant.core.json.jackson2.modules.ProtectedStringJackson2Module;
+import vi.legend.assistant.core.utils.protect.SqlInjectionUtils;
+import vi.legend.assistant.core.utils.protect.XssUtils;
+
+import java.io.IOException;
+
+/**
+ * Deserializer cho kiểu String, kiểm tra SQL Injection và làm sạch XSS ngay khi bind dữ liệu.
+ * <p>
+ * Deserializer chỉ được {@link ProtectedStringJackson2Module} gắn cho các thuộc tính được đánh dấu {@link SqlChecked}
+ * hoặc {@link XssCleaned}, kể cả phần tử của List, Set hay mảng String. Các thuộc tính khác dùng
+ * {@link StringDeserializer} mặc định của Jackson nên không phát sinh thêm chi phí.
+ * <p>
+ * Giá trị nghi ngờ SQL Injection được báo bằng một {@link JsonMappingException} không có stack trace, nguyên nhân là
+ * {@link SqlInjectionDetectedException}. Jackson chỉ bổ sung đường dẫn thuộc tính vào ngoại lệ này thay vì bọc
+ * thêm một lớp mới, nên lỗi đã lường trước không tốn chi phí dựng stack trace.
+ */
+public class ProtectedStringDeserializer extends StdScalarDeserializer<String> {
+
+    private final boolean sqlChecked;
+    private final boolean xssCleaned;
+
+    /**
+     * Constructor cho một thuộc tính cụ thể.
+     *
+     * @param sqlChecked Có kiểm tra SQL Injection hay không.
+     * @param xssCleaned Có làm sạch XSS hay không.
+     */
+    public ProtectedStringDeserializer(boolean sqlChecked, boolean xssCleaned) {
+        super(String.class);
+        this.sqlChecked = sqlChecked;
+        this.xssCleaned = xssCleaned;
+    }
+
+    /**
+     * Đọc giá trị String rồi kiểm tra, làm sạch theo annotation.
+     *
+     * @param jsonParser             Đối tượng JsonParser để đọc dữ liệu JSON
+     * @param deserializationContext Ngữ cảnh deserialization
+     * @return Giá trị đã được làm sạch
+     * @throws IOException Nếu có lỗi trong quá trình đọc dữ liệu, hoặc giá trị bị nghi ngờ SQL Injection
+     */
+    @Override
+    public String deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        String value = StringDeserializer.instance.deserialize(jsonParser, deserializationContext);
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+
+        if (sqlChecked && SqlInjectionUtils.checkForValue(value)) {
+            // Lỗi đã lường trước, không cần stack trace
+            String message = "Field [" + jsonParser.getParsingContext().pathAsPointer() + "] looks like SQL injection";
+            throw new SqlInjectionMappingException(jsonParser, message, new SqlInjectionDetectedException(message, false));
+        }
+        if (xssCleaned) {
+            value = XssUtils.cleaning(value);
+        }
+        return value;
+    }
+
+    /**
+     * Ngoại lệ không có stack trace, mang {@link SqlInjectionDetectedException} làm nguyên nhân.
+     */
+    private static final class SqlInjectionMappingException extends JsonMappingException {
+
+        private SqlInjectionMappingException(JsonParser jsonParser, String message, SqlInjectionDetectedException cause) {
+            super(jsonParser, message, cause);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
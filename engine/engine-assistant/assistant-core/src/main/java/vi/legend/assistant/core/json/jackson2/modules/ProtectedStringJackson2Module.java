@@ -0,0 +1,76 @@
+package vi.legend.assistant.core.json.jackson2.modules;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import vi.legend.assistant.core.annotation.SqlChecked;
+import vi.legend.assistant.core.annotation.XssCleaned;
+import vi.legend.assistant.core.json.jackson2.deserialzer.ProtectedStringDeserializer;
+
+/**
+ * Gắn {@link ProtectedStringDeserializer} cho các thuộc tính được đánh dấu {@link SqlChecked} hoặc {@link XssCleaned}
+ * để giá trị được kiểm tra ngay khi deserialize.
+ * <p>
+ * Module không đăng ký deserializer cho toàn bộ kiểu String: deserializer chỉ được chọn qua
+ * {@link ProtectedStringAnnotationIntrospector} cho thuộc tính String, hoặc cho phần tử của tập hợp và mảng String.
+ * Các thuộc tính khác, cùng các giá trị Object và Map không khai báo kiểu, vẫn dùng deserializer mặc định của Jackson.
+ */
+public class ProtectedStringJackson2Module extends SimpleModule {
+
+    public ProtectedStringJackson2Module() {
+        super(ProtectedStringJackson2Module.class.getName());
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        // Đứng trước JacksonAnnotationIntrospector để @JsonDeserialize trên cùng thuộc tính không bỏ qua bước kiểm tra.
+        context.insertAnnotationIntrospector(new ProtectedStringAnnotationIntrospector());
+    }
+
+    /**
+     * Chọn {@link ProtectedStringDeserializer} theo annotation và kiểu của thuộc tính.
+     */
+    public static class ProtectedStringAnnotationIntrospector extends NopAnnotationIntrospector {
+
+        @Override
+        public Object findDeserializer(Annotated annotated) {
+            JavaType type = typeOf(annotated);
+            if (type == null || !type.hasRawClass(String.class)) {
+                return null;
+            }
+            return deserializerFor(annotated);
+        }
+
+        @Override
+        public Object findContentDeserializer(Annotated annotated) {
+            JavaType type = typeOf(annotated);
+            if (type == null || !(type.isCollectionLikeType() || type.isArrayType())
+                    || !type.getContentType().hasRawClass(String.class)) {
+                return null;
+            }
+            return deserializerFor(annotated);
+        }
+
+        private static ProtectedStringDeserializer deserializerFor(Annotated annotated) {
+            boolean sqlChecked = annotated.hasAnnotation(SqlChecked.class);
+            boolean xssCleaned = annotated.hasAnnotation(XssCleaned.class);
+            if (!sqlChecked && !xssCleaned) {
+                return null;
+            }
+            return new ProtectedStringDeserializer(sqlChecked, xssCleaned);
+        }
+
+        /**
+         * Kiểu của thuộc tính: tham số của setter, hoặc kiểu của trường, getter và tham số constructor.
+         */
+        private static JavaType typeOf(Annotated annotated) {
+            if (annotated instanceof AnnotatedMethod method && method.getParameterCount() == 1) {
+                return method.getParameterType(0);
+            }
+            return annotated.getType();
+        }
+    }
+}
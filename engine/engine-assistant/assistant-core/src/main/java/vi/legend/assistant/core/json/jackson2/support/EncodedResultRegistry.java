@@ -0,0 +1,229 @@
+package vi.legend.assistant.core.json.jackson2.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import vi.legend.assistant.definition.domain.ErrorCodeMapper;
+import vi.legend.assistant.definition.domain.Feedback;
+import vi.legend.assistant.definition.domain.Result;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bộ đăng ký các phản hồi {@link Result} đã được mã hóa sẵn cho từng {@link Feedback}.
+ * <p>
+ * {@code Result.failure(Feedback)}, {@code Result.empty(Feedback)} và {@code Result.success()} luôn cho ra cùng
+ * một chuỗi byte, chỉ khác timestamp, path và traceId. Khi khởi động, phần cố định của mỗi Feedback đã đăng ký
+ * trong {@link ErrorCodeMapper} được serialize một lần bằng chính ObjectMapper của ứng dụng rồi cắt thành các
+ * đoạn byte UTF-8. Khi gửi phản hồi chỉ cần ghép các đoạn này với các trường thay đổi, không phải serialize lại
+ * toàn bộ đối tượng.
+ * <p>
+ * Feedback chưa đăng ký được serialize đầy đủ như bình thường.
+ */
+public class EncodedResultRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(EncodedResultRegistry.class);
+
+    private static final String TIMESTAMP_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final String TIMESTAMP_FIELD = "\"timestamp\":\"";
+    private static final String PATH_MARKER = "__SANZEE_PATH__";
+    private static final String TRACE_ID_MARKER = "__SANZEE_TRACE_ID__";
+
+    private final ObjectMapper objectMapper;
+    private final DateTimeFormatter formatter;
+    private final Map<Feedback, Template> failures;
+    private final Map<Feedback, Template> empties;
+    private final Template success;
+
+    private volatile EncodedTimestamp timestamp = new EncodedTimestamp(Long.MIN_VALUE, new byte[0]);
+
+    public EncodedResultRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.formatter = DateTimeFormatter.ofPattern(TIMESTAMP_PATTERN, objectMapper.getSerializationConfig().getLocale())
+                .withZone(objectMapper.getSerializationConfig().getTimeZone().toZoneId());
+
+        Map<Feedback, Template> failures = new HashMap<>();
+        Map<Feedback, Template> empties = new HashMap<>();
+        for (Feedback feedback : ErrorCodeMapper.getInstance().getDictionary().keySet()) {
+            Template failure = encode(Result.failure(feedback));
+            Template empty = encode(Result.empty(feedback));
+            if (failure != null) {
+                failures.put(feedback, failure);
+            }
+            if (empty != null) {
+                empties.put(feedback, empty);
+            }
+        }
+        this.failures = failures;
+        this.empties = empties;
+        this.success = encode(Result.success());
+        log.debug("[Sanzee] |- Pre-encoded [{}] feedback results.", failures.size());
+    }
+
+    /**
+     * Phản hồi của {@code Result.failure(feedback).path(path).traceId(traceId)}.
+     *
+     * @param feedback Đối tượng Feedback.
+     * @param path     Đường dẫn yêu cầu.
+     * @param traceId  TraceId, có thể null.
+     * @return JSON dạng byte UTF-8.
+     */
+    public byte[] failure(Feedback feedback, String path, String traceId) {
+        Template template = failures.get(feedback);
+        if (template == null) {
+            return serialize(Result.failure(feedback).path(path).traceId(traceId));
+        }
+        return template.render(timestamp(), path, traceId);
+    }
+
+    /**
+     * Phản hồi của {@code Result.empty(feedback).path(path).traceId(traceId)}.
+     *
+     * @param feedback Đối tượng Feedback.
+     * @param path     Đường dẫn yêu cầu.
+     * @param traceId  TraceId, có thể null.
+     * @return JSON dạng byte UTF-8.
+     */
+    public byte[] empty(Feedback feedback, String path, String traceId) {
+        Template template = empties.get(feedback);
+        if (template == null) {
+            return serialize(Result.empty(feedback).path(path).traceId(traceId));
+        }
+        return template.render(timestamp(), path, traceId);
+    }
+
+    /**
+     * Phản hồi của {@code Result.success().path(path).traceId(traceId)}.
+     *
+     * @param path    Đường dẫn yêu cầu.
+     * @param traceId TraceId, có thể null.
+     * @return JSON dạng byte UTF-8.
+     */
+    public byte[] success(String path, String traceId) {
+        if (success == null) {
+            return serialize(Result.success().path(path).traceId(traceId));
+        }
+        return success.render(timestamp(), path, traceId);
+    }
+
+    private byte[] serialize(Result<?> result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            log.error("[Sanzee] |- Lỗi xử lý JSON với Jackson2, khi chuyển đổi Result thành mảng byte! {}", e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Timestamp đã mã hóa, chỉ định dạng lại khi sang giây mới.
+     */
+    private byte[] timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        EncodedTimestamp current = this.timestamp;
+        if (current.second() != second) {
+            byte[] bytes = formatter.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.UTF_8);
+            current = new EncodedTimestamp(second, bytes);
+            this.timestamp = current;
+        }
+        return current.bytes();
+    }
+
+    /**
+     * Serialize mẫu với path và traceId là chuỗi đánh dấu, sau đó cắt tại timestamp và các chuỗi đánh dấu.
+     * Nếu ObjectMapper bỏ qua giá trị null, đoạn cuối khi không có traceId được lấy từ một lần serialize riêng.
+     */
+    private Template encode(Result<?> result) {
+        try {
+            String marked = objectMapper.writeValueAsString(result.path(PATH_MARKER).traceId(TRACE_ID_MARKER));
+            String unmarked = objectMapper.writeValueAsString(result.traceId(null));
+
+            int timestampStart = marked.indexOf(TIMESTAMP_FIELD);
+            int pathStart = marked.indexOf(quoted(PATH_MARKER));
+            int traceIdStart = marked.indexOf(quoted(TRACE_ID_MARKER));
+            int unmarkedPathStart = unmarked.indexOf(quoted(PATH_MARKER));
+            if (timestampStart < 0 || pathStart < 0 || traceIdStart < pathStart || unmarkedPathStart < 0) {
+                return null;
+            }
+            int timestampEnd = marked.indexOf('"', timestampStart + TIMESTAMP_FIELD.length());
+
+            return new Template(
+                    utf8(marked.substring(0, timestampStart + TIMESTAMP_FIELD.length())),
+                    utf8(marked.substring(timestampEnd, pathStart)),
+                    utf8(marked.substring(pathStart + quoted(PATH_MARKER).length(), traceIdStart)),
+                    utf8(marked.substring(traceIdStart + quoted(TRACE_ID_MARKER).length())),
+                    utf8(unmarked.substring(unmarkedPathStart + quoted(PATH_MARKER).length())));
+        } catch (JsonProcessingException e) {
+            log.warn("[Sanzee] |- Can not pre-encode result [{}]: {}", result.getMessage(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String quoted(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record EncodedTimestamp(long second, byte[] bytes) {
+    }
+
+    /**
+     * Các đoạn byte cố định: head + timestamp + beforePath + path + beforeTraceId + traceId + tail.
+     * Khi không có traceId: head + timestamp + beforePath + path + tailWithoutTraceId.
+     */
+    private record Template(byte[] head, byte[] beforePath, byte[] beforeTraceId, byte[] tail, byte[] tailWithoutTraceId) {
+
+        private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+        private static final byte QUOTE = '"';
+
+        byte[] render(byte[] timestamp, String path, String traceId) {
+            byte[] encodedPath = path != null ? JsonStringEncoder.getInstance().quoteAsUTF8(path) : null;
+            byte[] encodedTraceId = traceId != null ? JsonStringEncoder.getInstance().quoteAsUTF8(traceId) : null;
+
+            int size = head.length + timestamp.length + beforePath.length + length(encodedPath);
+            size += encodedTraceId != null ? beforeTraceId.length + length(encodedTraceId) + tail.length : tailWithoutTraceId.length;
+
+            byte[] body = new byte[size];
+            int offset = put(body, 0, head);
+            offset = put(body, offset, timestamp);
+            offset = put(body, offset, beforePath);
+            offset = putString(body, offset, encodedPath);
+            if (encodedTraceId != null) {
+                offset = put(body, offset, beforeTraceId);
+                offset = putString(body, offset, encodedTraceId);
+                put(body, offset, tail);
+            } else {
+                put(body, offset, tailWithoutTraceId);
+            }
+            return body;
+        }
+
+        private static int length(byte[] encoded) {
+            return encoded != null ? encoded.length + 2 : NULL.length;
+        }
+
+        private static int put(byte[] body, int offset, byte[] fragment) {
+            System.arraycopy(fragment, 0, body, offset, fragment.length);
+            return offset + fragment.length;
+        }
+
+        private static int putString(byte[] body, int offset, byte[] encoded) {
+            if (encoded == null) {
+                return put(body, offset, NULL);
+            }
+            body[offset++] = QUOTE;
+            offset = put(body, offset, encoded);
+            body[offset++] = QUOTE;
+            return offset;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package vi.legend.assistant.core.json.jackson2.utils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -7,7 +8,12 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.PostConstruct;
 import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.Logger;
@@ -16,6 +22,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +33,16 @@ import java.util.function.Function;
 
 /**
  * Lớp tiện ích cho việc xử lý JSON sử dụng Jackson.
+ * <p>
+ * ObjectReader và ObjectWriter là bất biến, an toàn khi dùng chung giữa các luồng, nên được lưu lại theo kiểu
+ * dữ liệu để không phải tìm lại serializer/deserializer gốc ở mỗi lần gọi. Các JavaType của List, Set, Map và mảng
+ * cũng được lưu lại. Mỗi bộ nhớ đệm giữ tối đa {@code CACHE_MAXIMUM_SIZE} phần tử.
+ * <p>
+ * Bộ nhớ đệm gắn với ObjectMapper đã tạo ra nó và được thay mới khi ObjectMapper thay đổi (khởi tạo lại hoặc đăng ký
+ * module). Lời gọi đang chạy trên bộ nhớ đệm cũ chỉ ghi vào bộ nhớ đệm cũ, nên không đưa reader/writer cũ vào bộ nhớ
+ * đệm mới.
+ * <p>
+ * Các ObjectReader/ObjectWriter này không tự đóng InputStream/OutputStream, luồng thuộc về bên gọi.
  */
 @Component
 public class Jackson2Utils {
@@ -31,6 +50,8 @@ public class Jackson2Utils {
     private static ObjectMapper OBJECT_MAPPER; // Đối tượng ObjectMapper dùng chung
     @Autowired
     private ObjectMapper objectMapper; // Đối tượng ObjectMapper được tiêm từ bên ngoài
+    private static final long CACHE_MAXIMUM_SIZE = 1024;
+    private static volatile Caches CACHES = new Caches(null);
 
     // Constructor mặc định
     public Jackson2Utils() {
@@ -50,7 +71,44 @@ public class Jackson2Utils {
      * @return ObjectMapper sau khi đăng ký module
      */
     public static ObjectMapper registerModule(Module module) {
-        return getObjectMapper().registerModules(new Module[]{module});
+        ObjectMapper objectMapper = getObjectMapper().registerModules(new Module[]{module});
+        CACHES = new Caches(objectMapper);
+        return objectMapper;
+    }
+
+    /**
+     * Lấy ObjectReader đã lưu cho kiểu dữ liệu.
+     * @param javaType Kiểu dữ liệu cần đọc
+     * @return ObjectReader dùng chung cho kiểu dữ liệu
+     */
+    public static ObjectReader getReader(JavaType javaType) {
+        Caches caches = CACHES;
+        return caches.readers().asMap().computeIfAbsent(javaType, type -> caches.objectMapper().readerFor(type)
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+    }
+
+    /**
+     * Lấy ObjectReader đã lưu cho lớp.
+     * @param valueType Lớp cần đọc
+     * @return ObjectReader dùng chung cho lớp
+     */
+    public static ObjectReader getReader(Class<?> valueType) {
+        return getReader(getTypeFactory().constructType(valueType));
+    }
+
+    /**
+     * Lấy ObjectWriter đã lưu cho lớp.
+     * @param valueType Lớp cần ghi
+     * @return ObjectWriter dùng chung cho lớp
+     */
+    public static ObjectWriter getWriter(Class<?> valueType) {
+        Caches caches = CACHES;
+        return caches.writers().asMap().computeIfAbsent(valueType, type -> caches.objectMapper().writerFor(type)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+
+    private static ObjectWriter getWriter(Object domain) {
+        return domain == null ? getWriter(Object.class) : getWriter(domain.getClass());
     }
 
     /**
@@ -61,13 +119,45 @@ public class Jackson2Utils {
      */
     public static <T> String toJson(T domain) {
         try {
-            return getObjectMapper().writeValueAsString(domain);
+            return getWriter(domain).writeValueAsString(domain);
         } catch (JsonProcessingException var2) {
             logger.error("[Sanzee] |- Lỗi xử lý JSON với Jackson2, khi chuyển đổi thành JSON! {}", var2.getMessage());
             return null;
         }
     }
 
+    /**
+     * Chuyển đối tượng thành JSON dạng byte UTF-8, không qua chuỗi trung gian.
+     * @param domain Đối tượng cần chuyển đổi
+     * @param <T> Loại của đối tượng
+     * @return Mảng byte JSON tương ứng với đối tượng
+     */
+    public static <T> byte[] toJsonBytes(T domain) {
+        try {
+            return getWriter(domain).writeValueAsBytes(domain);
+        } catch (JsonProcessingException var2) {
+            logger.error("[Sanzee] |- Lỗi xử lý JSON với Jackson2, khi chuyển đổi thành mảng byte JSON! {}", var2.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ghi đối tượng dưới dạng JSON UTF-8 trực tiếp vào OutputStream. OutputStream không bị đóng.
+     * @param outputStream OutputStream đích
+     * @param domain Đối tượng cần ghi
+     * @param <T> Loại của đối tượng
+     * @return True nếu ghi thành công
+     */
+    public static <T> boolean writeTo(OutputStream outputStream, T domain) {
+        try {
+            getWriter(domain).writeValue(outputStream, domain);
+            return true;
+        } catch (IOException var3) {
+            logger.error("[Sanzee] |- Lỗi IO với Jackson2, khi ghi JSON vào OutputStream! {}", var3.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Lấy TypeFactory từ ObjectMapper.
      * @return TypeFactory
@@ -85,7 +175,7 @@ public class Jackson2Utils {
      */
     public static <T> T toObject(String content, Class<T> valueType) {
         try {
-            return getObjectMapper().readValue(content, valueType);
+            return getReader(valueType).readValue(content);
         } catch (JsonProcessingException var3) {
             logger.error("[Sanzee] |- Lỗi xử lý JSON với Jackson2, khi chuyển đổi thành đối tượng với loại giá trị! {}", var3.getMessage());
             return null;
@@ -117,7 +207,7 @@ public class Jackson2Utils {
      */
     public static <T> T toObject(String content, TypeReference<T> typeReference) {
         try {
-            return getObjectMapper().readValue(content, typeReference);
+            return getReader(getTypeFactory().constructType(typeReference)).readValue(content);
         } catch (JsonProcessingException var3) {
             logger.error("[Sanzee] |- Lỗi xử lý JSON với Jackson2, khi chuyển đổi thành đối tượng với TypeReference! {}", var3.getMessage());
             return null;
@@ -133,13 +223,110 @@ public class Jackson2Utils {
      */
     public static <T> T toObject(String content, JavaType javaType) {
         try {
-            return getObjectMapper().readValue(content, javaType);
+            return getReader(javaType).readValue(content);
         } catch (JsonProcessingException var3) {
             logger.error("[Sanzee] |- Lỗi xử lý JSON với Jackson2, khi chuyển đổi thành đối tượng với JavaType! {}", var3.getMessage());
             return null;
         }
     }
 
+    /**
+     * Đọc đối tượng từ mảng byte JSON (UTF-8 hoặc tự nhận dạng mã hóa), không qua chuỗi trung gian.
+     * @param content Mảng byte JSON
+     * @param valueType Loại của đối tượng cần chuyển đổi
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(byte[] content, Class<T> valueType) {
+        return readFrom(content, getTypeFactory().constructType(valueType));
+    }
+
+    /**
+     * Đọc đối tượng từ mảng byte JSON sử dụng JavaType.
+     * @param content Mảng byte JSON
+     * @param javaType JavaType của đối tượng
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(byte[] content, JavaType javaType) {
+        try {
+            return getReader(javaType).readValue(content);
+        } catch (IOException var3) {
+            logger.error("[Sanzee] |- Lỗi IO với Jackson2, khi đọc đối tượng từ mảng byte! {}", var3.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Đọc đối tượng từ ByteBuffer. Vị trí của ByteBuffer không bị thay đổi.
+     * @param content ByteBuffer chứa JSON
+     * @param valueType Loại của đối tượng cần chuyển đổi
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(ByteBuffer content, Class<T> valueType) {
+        return readFrom(content, getTypeFactory().constructType(valueType));
+    }
+
+    /**
+     * Đọc đối tượng từ ByteBuffer sử dụng JavaType. Với ByteBuffer trên heap, mảng nền được đọc trực tiếp,
+     * không sao chép.
+     * @param content ByteBuffer chứa JSON
+     * @param javaType JavaType của đối tượng
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(ByteBuffer content, JavaType javaType) {
+        try {
+            ObjectReader reader = getReader(javaType);
+            if (content.hasArray()) {
+                return reader.readValue(content.array(), content.arrayOffset() + content.position(), content.remaining());
+            }
+            return reader.readValue(new ByteBufferBackedInputStream(content.duplicate()));
+        } catch (IOException var3) {
+            logger.error("[Sanzee] |- Lỗi IO với Jackson2, khi đọc đối tượng từ ByteBuffer! {}", var3.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Đọc đối tượng từ InputStream. InputStream không bị đóng.
+     * @param inputStream InputStream chứa JSON
+     * @param valueType Loại của đối tượng cần chuyển đổi
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(InputStream inputStream, Class<T> valueType) {
+        return readFrom(inputStream, getTypeFactory().constructType(valueType));
+    }
+
+    /**
+     * Đọc đối tượng từ InputStream sử dụng TypeReference. InputStream không bị đóng.
+     * @param inputStream InputStream chứa JSON
+     * @param typeReference TypeReference của đối tượng
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(InputStream inputStream, TypeReference<T> typeReference) {
+        return readFrom(inputStream, getTypeFactory().constructType(typeReference));
+    }
+
+    /**
+     * Đọc đối tượng từ InputStream sử dụng JavaType. InputStream không bị đóng.
+     * @param inputStream InputStream chứa JSON
+     * @param javaType JavaType của đối tượng
+     * @param <T> Loại của đối tượng
+     * @return Đối tượng chuyển đổi từ JSON
+     */
+    public static <T> T readFrom(InputStream inputStream, JavaType javaType) {
+        try {
+            return getReader(javaType).readValue(inputStream);
+        } catch (IOException var3) {
+            logger.error("[Sanzee] |- Lỗi IO với Jackson2, khi đọc đối tượng từ InputStream! {}", var3.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Chuyển chuỗi JSON thành danh sách đối tượng.
      * @param content Chuỗi JSON
@@ -148,7 +335,8 @@ public class Jackson2Utils {
      * @return Danh sách đối tượng chuyển đổi từ JSON
      */
     public static <T> List<T> toList(String content, Class<T> clazz) {
-        JavaType javaType = getObjectMapper().getTypeFactory().constructParametricType(List.class, new Class[]{clazz});
+        JavaType javaType = getType(new TypeKey(List.class, clazz, null),
+                typeFactory -> typeFactory.constructParametricType(List.class, new Class[]{clazz}));
         return (List)toObject(content, javaType);
     }
 
@@ -162,7 +350,8 @@ public class Jackson2Utils {
      * @return Bản đồ đối tượng chuyển đổi từ JSON
      */
     public static <K, V> Map<K, V> toMap(String content, Class<K> keyClass, Class<V> valueClass) {
-        JavaType javaType = getObjectMapper().getTypeFactory().constructMapType(Map.class, keyClass, valueClass);
+        JavaType javaType = getType(new TypeKey(Map.class, keyClass, valueClass),
+                typeFactory -> typeFactory.constructMapType(Map.class, keyClass, valueClass));
         return (Map)toObject((String)content, (JavaType)javaType);
     }
 
@@ -183,7 +372,8 @@ public class Jackson2Utils {
      * @return Tập hợp đối tượng chuyển đổi từ JSON
      */
     public static <T> Set<T> toSet(String content, Class<T> clazz) {
-        JavaType javaType = getTypeFactory().constructCollectionLikeType(Set.class, clazz);
+        JavaType javaType = getType(new TypeKey(Set.class, clazz, null),
+                typeFactory -> typeFactory.constructCollectionLikeType(Set.class, clazz));
         return (Set)toObject((String)content, (JavaType)javaType);
     }
 
@@ -195,7 +385,8 @@ public class Jackson2Utils {
      * @return Mảng đối tượng chuyển đổi từ JSON
      */
     public static <T> T[] toArray(String content, Class<T> clazz) {
-        JavaType javaType = getTypeFactory().constructArrayType(clazz);
+        JavaType javaType = getType(new TypeKey(Object[].class, clazz, null),
+                typeFactory -> typeFactory.constructArrayType(clazz));
         return toObject((String)content, (JavaType)javaType);
     }
 
@@ -277,6 +468,11 @@ public class Jackson2Utils {
         return jsonNode.isValueNode() ? function.apply(jsonNode) : null;
     }
 
+    private static JavaType getType(TypeKey typeKey, Function<TypeFactory, JavaType> constructor) {
+        Caches caches = CACHES;
+        return caches.types().asMap().computeIfAbsent(typeKey, key -> constructor.apply(caches.objectMapper().getTypeFactory()));
+    }
+
     /**
      * Khởi tạo đối tượng Jackson2Utils, thiết lập ObjectMapper.
      */
@@ -287,6 +483,26 @@ public class Jackson2Utils {
         } else {
             OBJECT_MAPPER = new ObjectMapper();
         }
+        CACHES = new Caches(OBJECT_MAPPER);
+    }
+
+    /**
+     * Khóa của JavaType đã lưu: kiểu chứa (List, Set, Map, mảng) và kiểu phần tử.
+     */
+    private record TypeKey(Class<?> container, Class<?> first, Class<?> second) {
+    }
+
+    /**
+     * Các bộ nhớ đệm có giới hạn của một ObjectMapper.
+     */
+    private record Caches(ObjectMapper objectMapper, Cache<JavaType, ObjectReader> readers,
+                          Cache<Class<?>, ObjectWriter> writers, Cache<TypeKey, JavaType> types) {
+
+        private Caches(ObjectMapper objectMapper) {
+            this(objectMapper, CacheBuilder.newBuilder().maximumSize(CACHE_MAXIMUM_SIZE).build(),
+                    CacheBuilder.newBuilder().maximumSize(CACHE_MAXIMUM_SIZE).build(),
+                    CacheBuilder.newBuilder().maximumSize(CACHE_MAXIMUM_SIZE).build());
+        }
     }
 }
 
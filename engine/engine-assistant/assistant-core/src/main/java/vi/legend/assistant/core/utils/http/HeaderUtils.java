@@ -21,6 +21,12 @@ public class HeaderUtils {
     public static final String X_SANZEE_TENANT_ID = "X-Sanzee-Tenant-Id";
     public static final String X_SANZEE_OPEN_ID = "X-Sanzee-Open-Id";
 
+    // Các tiêu đề do gateway ghi sau khi đã xác thực JWT, dịch vụ phía sau có thể tin cậy mà không cần xác thực lại.
+    public static final String X_SANZEE_PRINCIPAL = "X-Sanzee-Principal";
+    public static final String X_SANZEE_CLIENT_ID = "X-Sanzee-Client-Id";
+    public static final String X_SANZEE_SCOPE = "X-Sanzee-Scope";
+    public static final String X_SANZEE_TOKEN_EXPIRES_AT = "X-Sanzee-Token-Expires-At";
+
     /**
      * Constructor mặc định.
      */
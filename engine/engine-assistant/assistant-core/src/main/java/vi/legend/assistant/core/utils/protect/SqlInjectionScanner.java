@@ -0,0 +1,187 @@
+package vi.legend.assistant.core.utils.protect;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+/**
+ * Bộ quét SQL Injection gồm hai bước.
+ * <p>
+ * Bước 1: automaton Aho-Corasick duyệt chuỗi một lần để tìm các từ khóa bắt buộc của biểu thức chính quy
+ * (union, select, exec, drop, /*, script...). Việc chuyển chữ hoa/thường được thực hiện ngay trong lúc duyệt
+ * nên không cần tạo bản sao chữ thường của chuỗi.
+ * <p>
+ * Bước 2: chỉ khi có từ khóa xuất hiện mới chạy biểu thức chính quy đầy đủ để xác nhận. Phần lớn giá trị
+ * bình thường dừng lại ở bước 1.
+ * <p>
+ * Tập từ khóa phải bao phủ mọi nhánh của biểu thức chính quy, tức là bất kỳ chuỗi nào khớp biểu thức chính quy
+ * đều phải chứa ít nhất một từ khóa, để bước lọc không bỏ sót.
+ */
+public final class SqlInjectionScanner {
+
+    private static final int ALPHABET = 128;
+
+    private final Pattern pattern;
+    private final int[][] transitions;
+    private final Keyword[][] outputs;
+
+    /**
+     * Tạo bộ quét.
+     *
+     * @param pattern  Biểu thức chính quy dùng để xác nhận.
+     * @param keywords Các từ khóa ASCII bắt buộc của biểu thức chính quy.
+     */
+    public SqlInjectionScanner(Pattern pattern, List<Keyword> keywords) {
+        this.pattern = pattern;
+
+        int capacity = 1;
+        for (Keyword keyword : keywords) {
+            capacity += keyword.value().length();
+        }
+
+        int[][] goTo = new int[capacity][ALPHABET];
+        for (int[] row : goTo) {
+            Arrays.fill(row, -1);
+        }
+        List<List<Keyword>> output = new ArrayList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            output.add(new ArrayList<>(1));
+        }
+
+        // Xây dựng cây tiền tố
+        int states = 1;
+        for (Keyword keyword : keywords) {
+            int state = 0;
+            for (char c : keyword.value().toCharArray()) {
+                int symbol = fold(c);
+                if (goTo[state][symbol] < 0) {
+                    goTo[state][symbol] = states++;
+                }
+                state = goTo[state][symbol];
+            }
+            output.get(state).add(keyword);
+        }
+
+        // Tính hàm thất bại theo BFS và chuyển cây thành DFA đầy đủ
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = goTo[0][symbol];
+            if (next < 0) {
+                goTo[0][symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output.get(state).addAll(output.get(failure[state]));
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int next = goTo[state][symbol];
+                if (next < 0) {
+                    goTo[state][symbol] = goTo[failure[state]][symbol];
+                } else {
+                    failure[next] = goTo[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(goTo, states);
+        this.outputs = new Keyword[states][];
+        for (int state = 0; state < states; state++) {
+            List<Keyword> found = output.get(state);
+            this.outputs[state] = found.isEmpty() ? null : found.toArray(new Keyword[0]);
+        }
+    }
+
+    /**
+     * Kiểm tra toàn bộ chuỗi.
+     *
+     * @param value Chuỗi cần kiểm tra.
+     * @return True nếu phát hiện SQL Injection.
+     */
+    public boolean scan(CharSequence value) {
+        return scan(value, 0, value.length());
+    }
+
+    /**
+     * Kiểm tra một đoạn của chuỗi, tránh phải cắt chuỗi con.
+     *
+     * @param value Chuỗi chứa đoạn cần kiểm tra.
+     * @param from  Vị trí bắt đầu (bao gồm).
+     * @param to    Vị trí kết thúc (không bao gồm).
+     * @return True nếu phát hiện SQL Injection.
+     */
+    public boolean scan(CharSequence value, int from, int to) {
+        return prefilter(value, from, to) && pattern.matcher(value).region(from, to).find();
+    }
+
+    /**
+     * Bước lọc: true nếu đoạn chuỗi chứa ít nhất một từ khóa.
+     */
+    boolean prefilter(CharSequence value, int from, int to) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            int symbol = fold(value.charAt(i));
+            if (symbol >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            state = transitions[state][symbol];
+            Keyword[] found = outputs[state];
+            if (found != null) {
+                for (Keyword keyword : found) {
+                    if (!keyword.wordBoundary() || isBounded(value, from, to, i + 1 - keyword.value().length(), i + 1)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Kiểm tra ranh giới từ (giống {@code \b}). Chỉ coi ký tự ASCII là ký tự của từ nên kết quả luôn rộng hơn
+     * hoặc bằng biểu thức chính quy, bước lọc không bao giờ loại bỏ một chuỗi mà biểu thức chính quy sẽ khớp.
+     */
+    private static boolean isBounded(CharSequence value, int from, int to, int start, int end) {
+        return (start <= from || !isWordChar(value.charAt(start - 1)))
+                && (end >= to || !isWordChar(value.charAt(end)));
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Chuyển ký tự về dạng so sánh không phân biệt hoa thường, giống cách {@link Pattern#UNICODE_CASE} so sánh.
+     */
+    private static int fold(char c) {
+        if (c < ALPHABET) {
+            return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Từ khóa của bước lọc.
+     *
+     * @param value        Từ khóa ASCII.
+     * @param wordBoundary Từ khóa có phải đứng riêng như một từ ({@code \b...\b}) hay không.
+     */
+    public record Keyword(String value, boolean wordBoundary) {
+
+        public static Keyword of(String value) {
+            return new Keyword(value, false);
+        }
+
+        public static Keyword word(String value) {
+            return new Keyword(value, true);
+        }
+    }
+}
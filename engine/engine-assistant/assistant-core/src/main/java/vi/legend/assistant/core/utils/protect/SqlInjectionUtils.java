@@ -3,16 +3,14 @@ package vi.legend.assistant.core.utils.protect;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import vi.legend.assistant.core.json.gson.GsonUtils;
-import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.ObjectUtils;
 import org.dromara.hutool.core.net.url.UrlDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Lớp SqlInjectionUtils cung cấp các phương thức để phát hiện và ngăn chặn các cuộc tấn công SQL Injection
@@ -26,8 +24,25 @@ public class SqlInjectionUtils {
     // Biểu thức chính quy dùng để phát hiện các từ khóa và mẫu cú pháp có thể liên quan đến SQL Injection.
     private static final String SQL_REGEX = "\\b(and|or)\\b.{1,6}?(=|>|<|\\bin\\b|\\blike\\b)|\\/\\*.+?\\*\\/|<\\s*script\\b|\\bEXEC\\b|UNION.+?SELECT|UPDATE.+?SET|INSERT\\s+INTO.+?VALUES|(SELECT|DELETE).+?FROM|(CREATE|ALTER|DROP|TRUNCATE)\\s+(TABLE|DATABASE)";
 
-    // Pattern được biên dịch từ biểu thức chính quy để sử dụng trong việc so khớp chuỗi.
-    private static final Pattern SQL_PATTERN = Pattern.compile(SQL_REGEX, Pattern.CASE_INSENSITIVE);
+    // Pattern được biên dịch từ biểu thức chính quy, so khớp trực tiếp trên chuỗi gốc nên không cần chuyển sang chữ thường.
+    private static final Pattern SQL_PATTERN = Pattern.compile(SQL_REGEX, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    // Bộ quét với bước lọc theo từ khóa, mỗi nhánh của SQL_REGEX có ít nhất một từ khóa bắt buộc tương ứng.
+    private static final SqlInjectionScanner SCANNER = new SqlInjectionScanner(SQL_PATTERN, List.of(
+            SqlInjectionScanner.Keyword.word("and"),
+            SqlInjectionScanner.Keyword.word("or"),
+            SqlInjectionScanner.Keyword.of("/*"),
+            SqlInjectionScanner.Keyword.of("script"),
+            SqlInjectionScanner.Keyword.word("exec"),
+            SqlInjectionScanner.Keyword.of("union"),
+            SqlInjectionScanner.Keyword.of("update"),
+            SqlInjectionScanner.Keyword.of("insert"),
+            SqlInjectionScanner.Keyword.of("select"),
+            SqlInjectionScanner.Keyword.of("delete"),
+            SqlInjectionScanner.Keyword.of("create"),
+            SqlInjectionScanner.Keyword.of("alter"),
+            SqlInjectionScanner.Keyword.of("drop"),
+            SqlInjectionScanner.Keyword.of("truncate")));
 
     /**
      * Constructor mặc định.
@@ -36,15 +51,16 @@ public class SqlInjectionUtils {
     }
 
     /**
-     * Kiểm tra xem chuỗi đầu vào có khớp với các từ khóa hoặc mẫu cú pháp có thể gây ra SQL Injection không.
+     * Kiểm tra xem một đoạn của chuỗi đầu vào có khớp với các từ khóa hoặc mẫu cú pháp có thể gây ra SQL Injection không.
      *
-     * @param lowerValue Chuỗi đã được chuyển sang chữ thường để kiểm tra.
-     * @param param Chuỗi đầu vào cần kiểm tra.
+     * @param value Chuỗi đầu vào cần kiểm tra.
+     * @param from Vị trí bắt đầu của đoạn cần kiểm tra (bao gồm).
+     * @param to Vị trí kết thúc của đoạn cần kiểm tra (không bao gồm).
      * @return True nếu phát hiện thấy từ khóa liên quan đến SQL Injection, ngược lại trả về False.
      */
-    private static boolean matching(String lowerValue, String param) {
-        if (SQL_PATTERN.matcher(param).find()) {
-            log.error("[Herodotus] |- Tham số chứa từ khóa {} không cho phép SQL!", lowerValue);
+    private static boolean matching(String value, int from, int to) {
+        if (SCANNER.scan(value, from, to)) {
+            log.error("[Herodotus] |- Tham số chứa từ khóa {} không cho phép SQL!", value.substring(from, to));
             return true;
         } else {
             return false;
@@ -52,38 +68,56 @@ public class SqlInjectionUtils {
     }
 
     /**
-     * Chuyển đổi đối tượng thành chuỗi và chuyển đổi chuỗi đó thành chữ thường.
+     * Kiểm tra một giá trị đầu vào xem có chứa từ khóa liên quan đến SQL Injection không.
      *
-     * @param obj Đối tượng cần chuyển đổi.
-     * @return Chuỗi chữ thường của đối tượng.
+     * @param value Giá trị cần kiểm tra.
+     * @return True nếu phát hiện thấy từ khóa liên quan đến SQL Injection, ngược lại trả về False.
      */
-    private static String toLowerCase(Object obj) {
-        return Optional.ofNullable(obj).map(Object::toString).map(String::toLowerCase).orElse("");
+    private static boolean checking(Object value) {
+        if (value == null) {
+            return false;
+        }
+        String text = value.toString();
+        return matching(text, 0, text.length());
     }
 
     /**
-     * Kiểm tra một giá trị đầu vào xem có chứa từ khóa liên quan đến SQL Injection không.
+     * Kiểm tra một giá trị đơn lẻ (ví dụ một chuỗi trong JSON đã được giải mã) để phát hiện SQL Injection.
      *
      * @param value Giá trị cần kiểm tra.
      * @return True nếu phát hiện thấy từ khóa liên quan đến SQL Injection, ngược lại trả về False.
      */
-    private static boolean checking(Object value) {
-        String lowerValue = toLowerCase(value);
-        return matching(lowerValue, lowerValue);
+    public static boolean checkForValue(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        return checking(value);
     }
 
     /**
      * Kiểm tra một chuỗi URL được mã hóa để phát hiện SQL Injection trong các yêu cầu GET.
+     * Các tham số được duyệt tuần tự trên chuỗi đã giải mã, không tách mảng và không cắt chuỗi con.
      *
      * @param value Chuỗi URL cần kiểm tra.
      * @return True nếu phát hiện thấy từ khóa liên quan đến SQL Injection, ngược lại trả về False.
      */
     public static boolean checkForGet(String value) {
-        String lowerValue = UrlDecoder.decode(value, StandardCharsets.UTF_8).toLowerCase();
-        return Stream.of(lowerValue.split("\\&"))
-                .map(kp -> kp.substring(kp.indexOf("=") + 1))
-                .parallel()
-                .anyMatch(param -> matching(lowerValue, param));
+        String decoded = UrlDecoder.decode(value, StandardCharsets.UTF_8);
+        int length = decoded.length();
+        int start = 0;
+        while (start <= length) {
+            int end = decoded.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            int equals = decoded.indexOf('=', start);
+            int from = equals >= 0 && equals < end ? equals + 1 : start;
+            if (from < end && matching(decoded, from, end)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
     }
 
     /**
@@ -93,53 +127,43 @@ public class SqlInjectionUtils {
      * @return True nếu phát hiện thấy từ khóa liên quan đến SQL Injection, ngược lại trả về False.
      */
     public static boolean checkForPost(String value) {
-        List<JsonElement> result = new ArrayList<>();
         JsonElement jsonElement = GsonUtils.toJsonElement(value);
-        iterator(jsonElement, result);
-        return CollectionUtils.isNotEmpty(result);
+        return iterator(jsonElement);
     }
 
     /**
      * Duyệt qua cấu trúc JSON để kiểm tra từng phần tử và phát hiện SQL Injection.
+     * Dừng ngay khi gặp phần tử đầu tiên có dấu hiệu SQL Injection.
      *
      * @param jsonElement Phần tử JSON cần kiểm tra.
-     * @param result Danh sách chứa các phần tử JSON phát hiện có SQL Injection.
+     * @return True nếu phát hiện thấy SQL Injection, ngược lại trả về False.
      */
-    private static void iterator(JsonElement jsonElement, List<JsonElement> result) {
-        if (!jsonElement.isJsonNull()) {
-            if (jsonElement.isJsonPrimitive()) {
-                boolean hasInjection = checking(jsonElement.toString());
-                if (hasInjection) {
-                    result.add(jsonElement);
-                }
+    private static boolean iterator(JsonElement jsonElement) {
+        if (jsonElement == null || jsonElement.isJsonNull()) {
+            return false;
+        }
 
-            } else {
-                Iterator var3;
-                if (jsonElement.isJsonArray()) {
-                    JsonArray jsonArray = jsonElement.getAsJsonArray();
-                    if (ObjectUtils.isNotEmpty(jsonArray)) {
-                        var3 = jsonArray.iterator();
-
-                        while(var3.hasNext()) {
-                            JsonElement je = (JsonElement)var3.next();
-                            iterator(je, result);
-                        }
-                    }
-
-                } else {
-                    if (jsonElement.isJsonObject()) {
-                        Set<Map.Entry<String, JsonElement>> es = jsonElement.getAsJsonObject().entrySet();
-                        var3 = es.iterator();
-
-                        while(var3.hasNext()) {
-                            Map.Entry<String, JsonElement> en = (Map.Entry)var3.next();
-                            iterator((JsonElement)en.getValue(), result);
-                        }
-                    }
+        if (jsonElement.isJsonPrimitive()) {
+            return checking(jsonElement.toString());
+        }
 
+        if (jsonElement.isJsonArray()) {
+            JsonArray jsonArray = jsonElement.getAsJsonArray();
+            for (JsonElement je : jsonArray) {
+                if (iterator(je)) {
+                    return true;
                 }
             }
+            return false;
         }
+
+        if (jsonElement.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> en : jsonElement.getAsJsonObject().entrySet()) {
+                if (iterator(en.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
-
@@ -2,7 +2,17 @@ package vi.legend.assistant.core.utils.protect;
 
 import java.io.IOException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.commons.text.StringEscapeUtils;
 import org.owasp.validator.html.AntiSamy;
 import org.owasp.validator.html.CleanResults;
@@ -12,6 +22,9 @@ import org.owasp.validator.html.ScanException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import vi.legend.assistant.core.utils.ResourceUtils;
+import vi.legend.assistant.definition.domain.Pool;
+import vi.legend.assistant.definition.support.AbstractObjectPool;
+import vi.legend.assistant.definition.support.Lease;
 
 /**
  * Lớp XssUtils cung cấp các phương thức để bảo vệ chống lại các cuộc tấn công XSS (Cross-Site Scripting).
@@ -25,23 +38,45 @@ public class XssUtils {
     // Đối tượng duy nhất của lớp XssUtils, sử dụng mô hình Singleton.
     private static volatile XssUtils INSTANCE;
 
-    // Đối tượng AntiSamy dùng để quét và làm sạch HTML.
-    private final AntiSamy antiSamy;
+    // Số lượng tối đa kết quả làm sạch được lưu lại.
+    private static final long CACHE_MAXIMUM_SIZE = 10000;
+
+    // Chỉ lưu kết quả của các chuỗi ngắn, tránh để bộ nhớ đệm giữ các nội dung lớn.
+    private static final int CACHE_MAXIMUM_LENGTH = 1024;
+
+    // Thời gian chờ tối đa khi mượn AntiSamy theo cách chặn luồng, không bao giờ chờ vô hạn.
+    private static final Duration POOL_MAXIMUM_WAIT = Duration.ofMillis(200);
+
+    // Policy dùng chung cho các đối tượng AntiSamy, kể cả đối tượng tạm thời khi bể cạn.
+    private final Policy policy;
+
+    // Bể các đối tượng AntiSamy dùng để quét và làm sạch HTML, tránh các yêu cầu đồng thời tranh chấp một đối tượng.
+    private final ScannerPool scannerPool;
+
+    // Mẫu đã biên dịch của chuỗi HTML đại diện cho khoảng trắng không thể tách rời.
+    private final Pattern nbsp;
 
-    // Chuỗi HTML đại diện cho khoảng trắng không thể tách rời.
-    private final String nbsp;
+    // Mẫu đã biên dịch của chuỗi HTML đại diện cho dấu ngoặc kép.
+    private final Pattern quot;
 
-    // Chuỗi HTML đại diện cho dấu ngoặc kép.
-    private final String quot;
+    // Bộ nhớ đệm LRU có giới hạn cho các giá trị được làm sạch lặp lại.
+    private final Cache<String, String> cleaned;
 
     /**
-     * Constructor mặc định, khởi tạo đối tượng AntiSamy và các chuỗi thay thế HTML.
+     * Constructor mặc định, khởi tạo bể AntiSamy và các mẫu thay thế HTML.
      */
     private XssUtils() {
-        Policy policy = this.createPolicy();
-        this.antiSamy = ObjectUtils.isNotEmpty(policy) ? new AntiSamy(policy) : new AntiSamy();
-        this.nbsp = this.cleanHtml("&nbsp;");
-        this.quot = this.cleanHtml("\"");
+        Pool pool = new Pool();
+        pool.setMaxTotal(Math.max(Runtime.getRuntime().availableProcessors(), pool.getMaxTotal()));
+        pool.setMaxIdle(pool.getMaxTotal());
+        pool.setType(Pool.Type.THREAD_CACHED);
+        pool.setName("xss-antisamy");
+        pool.setMaxWait(POOL_MAXIMUM_WAIT);
+        this.policy = this.createPolicy();
+        this.scannerPool = new ScannerPool(this.policy, pool);
+        this.nbsp = Pattern.compile(Pattern.quote(this.cleanHtml("&nbsp;")));
+        this.quot = Pattern.compile(Pattern.quote(this.cleanHtml("\"")));
+        this.cleaned = CacheBuilder.newBuilder().maximumSize(CACHE_MAXIMUM_SIZE).build();
     }
 
     /**
@@ -68,14 +103,73 @@ public class XssUtils {
      * @return Chuỗi HTML đã được làm sạch.
      */
     public static String cleaning(String taintedHTML) {
-        String cleanHtml = StringEscapeUtils.unescapeHtml4(getInstance().cleanHtml(taintedHTML));
-        String temp = cleanHtml.replaceAll(getInstance().nbsp, "");
-        temp = temp.replaceAll(getInstance().quot, "\"");
-        String result = temp.replaceAll("\n", "");
+        if (isPlainText(taintedHTML)) {
+            return taintedHTML;
+        }
+
+        XssUtils instance = getInstance();
+        if (taintedHTML.length() > CACHE_MAXIMUM_LENGTH) {
+            return instance.process(taintedHTML);
+        }
+
+        String result = instance.cleaned.getIfPresent(taintedHTML);
+        if (result == null) {
+            result = instance.process(taintedHTML);
+            instance.cleaned.put(taintedHTML, result);
+        }
+        return result;
+    }
+
+    /**
+     * Làm sạch chuỗi bằng AntiSamy, sau đó giải mã thực thể HTML và loại bỏ các ký tự thừa.
+     *
+     * @param taintedHTML Chuỗi HTML bị ô nhiễm.
+     * @return Chuỗi HTML đã được làm sạch.
+     */
+    private String process(String taintedHTML) {
+        String cleanHtml = StringEscapeUtils.unescapeHtml4(this.cleanHtml(taintedHTML));
+        String temp = replace(this.nbsp, cleanHtml, "");
+        temp = replace(this.quot, temp, "\"");
+        String result = StringUtils.remove(temp, '\n');
         log.trace("[Sanzee] |- Antisamy process value from [{}] to [{}]", taintedHTML, result);
         return result;
     }
 
+    private static String replace(Pattern pattern, String value, String replacement) {
+        Matcher matcher = pattern.matcher(value);
+        return matcher.find() ? matcher.replaceAll(Matcher.quoteReplacement(replacement)) : value;
+    }
+
+    /**
+     * Kiểm tra chuỗi có phải văn bản thuần mà AntiSamy sẽ trả về nguyên vẹn hay không.
+     * Chuỗi không chứa ký tự đánh dấu ({@code <}, {@code &}), ký tự điều khiển, khoảng trắng không thể tách rời
+     * và không kết thúc bằng khoảng trắng (AntiSamy cắt khoảng trắng cuối chuỗi) thì không cần quét.
+     *
+     * @param value Chuỗi cần kiểm tra.
+     * @return True nếu có thể bỏ qua việc quét.
+     */
+    private static boolean isPlainText(String value) {
+        if (value == null || value.isEmpty()) {
+            return true;
+        }
+
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '<' || c == '&' || c == 0x7F || c == 0xA0) {
+                return false;
+            }
+            if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                } else {
+                    return false;
+                }
+            }
+        }
+        return value.charAt(length - 1) != ' ';
+    }
+
     /**
      * Tạo một policy cho AntiSamy từ file cấu hình.
      *
@@ -93,6 +187,9 @@ public class XssUtils {
 
     /**
      * Quét và làm sạch HTML bị ô nhiễm bằng AntiSamy.
+     * <p>
+     * Phương thức này được gọi khi deserialize JSON, có thể trên event loop của Netty, nên không bao giờ chờ bể:
+     * khi bể cạn, một đối tượng AntiSamy tạm thời được tạo với cùng policy và bỏ đi sau khi quét.
      *
      * @param taintedHtml Chuỗi HTML bị ô nhiễm.
      * @return Kết quả làm sạch HTML.
@@ -100,7 +197,17 @@ public class XssUtils {
      * @throws PolicyException Nếu có lỗi với policy.
      */
     private CleanResults scan(String taintedHtml) throws ScanException, PolicyException {
-        return this.antiSamy.scan(taintedHtml);
+        Lease<AntiSamy> lease = this.scannerPool.tryLease();
+        if (lease == null) {
+            return newAntiSamy(this.policy).scan(taintedHtml);
+        }
+        try (lease) {
+            return lease.get().scan(taintedHtml);
+        }
+    }
+
+    private static AntiSamy newAntiSamy(Policy policy) {
+        return ObjectUtils.isNotEmpty(policy) ? new AntiSamy(policy) : new AntiSamy();
     }
 
     /**
@@ -118,5 +225,24 @@ public class XssUtils {
             return taintedHtml;
         }
     }
-}
 
+    /**
+     * Bể các đối tượng AntiSamy dùng chung một Policy.
+     */
+    private static class ScannerPool extends AbstractObjectPool<AntiSamy> {
+
+        private ScannerPool(Policy policy, Pool pool) {
+            super(new BasePooledObjectFactory<>() {
+                @Override
+                public AntiSamy create() {
+                    return newAntiSamy(policy);
+                }
+
+                @Override
+                public PooledObject<AntiSamy> wrap(AntiSamy antiSamy) {
+                    return new DefaultPooledObject<>(antiSamy);
+                }
+            }, pool);
+        }
+    }
+}
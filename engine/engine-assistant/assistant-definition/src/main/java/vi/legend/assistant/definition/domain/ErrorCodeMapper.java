@@ -1,30 +1,36 @@
 package vi.legend.assistant.definition.domain;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import vi.legend.assistant.definition.constants.ErrorCodes;
 
 /**
  * Lớp này thực hiện ánh xạ mã lỗi từ các đối tượng phản hồi (Feedback) tới mã lỗi số nguyên.
+ * <p>
+ * Dữ liệu ánh xạ là một bản chụp (snapshot) bất biến, được thay thế nguyên khối bằng {@link AtomicReference}.
+ * Việc đọc không cần khóa. Mỗi Feedback được cấp một chỉ số liên tục khi đăng ký, nên việc tra cứu chỉ là đọc
+ * một phần tử mảng. Feedback chưa đăng ký (hoặc bản sao bằng nhau theo message) được tra cứu qua bảng băm.
  */
 public class ErrorCodeMapper {
 
     // Biến instance duy nhất của lớp (singleton)
     private static volatile ErrorCodeMapper instance;
 
-    // Bản đồ lưu trữ ánh xạ phản hồi tới mã lỗi
-    private final Map<Feedback, Integer> dictionary = new LinkedHashMap<Feedback, Integer>() {
-        {
-            // Khởi tạo ánh xạ phản hồi thành công và không có nội dung
-            this.put(ErrorCodes.OK, ErrorCodes.OK.getSequence());
-            this.put(ErrorCodes.NO_CONTENT, ErrorCodes.NO_CONTENT.getSequence());
-        }
-    };
+    // Bản chụp hiện tại của ánh xạ phản hồi tới mã lỗi
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
 
     // Constructor riêng, không cho phép tạo đối tượng ngoài lớp này
     private ErrorCodeMapper() {
+        // Khởi tạo ánh xạ phản hồi thành công và không có nội dung
+        Map<Feedback, Integer> defaults = new LinkedHashMap<>();
+        defaults.put(ErrorCodes.OK, ErrorCodes.OK.getSequence());
+        defaults.put(ErrorCodes.NO_CONTENT, ErrorCodes.NO_CONTENT.getSequence());
+        this.append(defaults);
     }
 
     /**
@@ -50,19 +56,28 @@ public class ErrorCodeMapper {
      * @return Mã lỗi tương ứng với phản hồi.
      */
     private Integer getErrorCode(Feedback feedback) {
-        return this.dictionary.get(feedback);
+        return this.snapshot.get().get(feedback);
     }
 
     /**
-     * Thêm các ánh xạ phản hồi và mã lỗi vào bản đồ.
+     * Thêm các ánh xạ phản hồi và mã lỗi. Bản chụp mới được tạo từ bản cũ rồi thay thế nguyên khối,
+     * các luồng đang đọc luôn thấy một bản chụp đầy đủ.
      * @param indexes Bản đồ chứa các ánh xạ phản hồi và mã lỗi mới.
      */
-    public void append(Map<Feedback, Integer> indexes) {
+    public synchronized void append(Map<Feedback, Integer> indexes) {
         if (MapUtils.isNotEmpty(indexes)) {
-            this.dictionary.putAll(indexes);
+            this.snapshot.set(this.snapshot.get().with(indexes));
         }
     }
 
+    /**
+     * Lấy bản sao chỉ đọc của toàn bộ ánh xạ hiện tại.
+     * @return Ánh xạ phản hồi tới mã lỗi.
+     */
+    public Map<Feedback, Integer> getDictionary() {
+        return this.snapshot.get().dictionary();
+    }
+
     /**
      * Lấy mã lỗi tương ứng với phản hồi từ singleton instance.
      * @param feedback Phản hồi cần tra cứu mã lỗi.
@@ -71,5 +86,52 @@ public class ErrorCodeMapper {
     public static Integer get(Feedback feedback) {
         return getInstance().getErrorCode(feedback);
     }
-}
 
+    /**
+     * Bản chụp bất biến.
+     *
+     * @param dictionary Ánh xạ theo message (equals/hashCode của Feedback), dùng khi không tra được theo chỉ số.
+     * @param feedbacks  Feedback đã đăng ký theo chỉ số, phần tử 0 không dùng.
+     * @param codes      Mã lỗi theo chỉ số.
+     */
+    private record Snapshot(Map<Feedback, Integer> dictionary, Feedback[] feedbacks, Integer[] codes) {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), new Feedback[1], new Integer[1]);
+
+        Integer get(Feedback feedback) {
+            if (feedback == null) {
+                return null;
+            }
+            int index = feedback.getIndex();
+            // So sánh tham chiếu: chỉ số chỉ thuộc về đúng đối tượng đã đăng ký
+            if (index > 0 && index < feedbacks.length && feedbacks[index] == feedback) {
+                return codes[index];
+            }
+            return dictionary.get(feedback);
+        }
+
+        Snapshot with(Map<Feedback, Integer> indexes) {
+            Map<Feedback, Integer> merged = new LinkedHashMap<>(dictionary);
+            merged.putAll(indexes);
+
+            Feedback[] nextFeedbacks = Arrays.copyOf(feedbacks, feedbacks.length + indexes.size());
+            int size = feedbacks.length;
+            for (Feedback feedback : indexes.keySet()) {
+                int index = feedback.getIndex();
+                if (index > 0 && index < size && nextFeedbacks[index] == feedback) {
+                    continue;
+                }
+                feedback.setIndex(size);
+                nextFeedbacks[size++] = feedback;
+            }
+            nextFeedbacks = Arrays.copyOf(nextFeedbacks, size);
+
+            // Các Feedback bằng nhau theo message dùng chung một mã lỗi, giống như khi tra cứu qua bảng băm
+            Integer[] nextCodes = new Integer[size];
+            for (int index = 1; index < size; index++) {
+                nextCodes[index] = merged.get(nextFeedbacks[index]);
+            }
+            return new Snapshot(Collections.unmodifiableMap(merged), nextFeedbacks, nextCodes);
+        }
+    }
+}
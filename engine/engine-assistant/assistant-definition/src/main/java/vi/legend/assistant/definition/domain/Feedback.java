@@ -10,6 +10,9 @@ public class Feedback implements Serializable {
     private final String message;
     private final int status;
     private final int custom;
+    private final int hash;
+    // Chỉ số do ErrorCodeMapper cấp khi đăng ký, 0 là chưa đăng ký
+    private transient int index;
 
     public Feedback(String message, int status) {
         this(message, status, 0);
@@ -20,6 +23,7 @@ public class Feedback implements Serializable {
         this.message = message;
         this.status = status;
         this.custom = custom;
+        this.hash = Objects.hashCode(new Object[]{message});
     }
 
     public String getMessage() {
@@ -58,7 +62,15 @@ public class Feedback implements Serializable {
     }
 
     public int hashCode() {
-        return Objects.hashCode(new Object[]{this.message});
+        return this.hash;
+    }
+
+    int getIndex() {
+        return this.index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
     }
 
 }
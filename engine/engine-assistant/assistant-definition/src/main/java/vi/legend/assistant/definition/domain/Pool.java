@@ -11,6 +11,7 @@ import java.time.Duration;
  * quản lý kết nối trong bể.
  */
 public class Pool {
+    private String name; // Tên của bể, dùng làm nhãn khi xuất số liệu. Mặc định là tên lớp của bể kèm số thứ tự.
     private Integer maxTotal = 8; // Số lượng kết nối tối đa trong bể.
     private Integer maxIdle = 8; // Số lượng kết nối nhàn rỗi tối đa trong bể.
     private Integer minIdle = 0; // Số lượng kết nối nhàn rỗi tối thiểu trong bể.
@@ -19,6 +20,8 @@ public class Pool {
     private Boolean blockWhenExhausted; // Cho biết liệu có chặn yêu cầu khi bể cạn kết nối hay không.
     private Duration minEvictableIdleDuration; // Thời gian tối thiểu mà một kết nối nhàn rỗi có thể bị loại bỏ.
     private Duration softMinEvictableIdleDuration; // Thời gian mềm tối thiểu mà một kết nối nhàn rỗi có thể bị loại bỏ.
+    private Type type = Type.GENERIC; // Cài đặt bể được sử dụng.
+    private Adaptive adaptive = new Adaptive(); // Cấu hình tự điều chỉnh maxIdle/minIdle.
 
     /**
      * Constructor mặc định của lớp Pool, thiết lập các giá trị mặc định cho một số tham số.
@@ -30,6 +33,24 @@ public class Pool {
         this.softMinEvictableIdleDuration = BaseObjectPoolConfig.DEFAULT_SOFT_MIN_EVICTABLE_IDLE_DURATION;
     }
 
+    /**
+     * Lấy tên của bể.
+     *
+     * @return Tên của bể.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Thiết lập tên của bể.
+     *
+     * @param name Tên của bể cần thiết lập.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
     /**
      * Lấy số lượng kết nối tối đa trong bể.
      *
@@ -174,6 +195,42 @@ public class Pool {
         this.softMinEvictableIdleDuration = softMinEvictableIdleDuration;
     }
 
+    /**
+     * Lấy cài đặt bể được sử dụng.
+     *
+     * @return Cài đặt bể.
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Thiết lập cài đặt bể được sử dụng.
+     *
+     * @param type Cài đặt bể cần thiết lập.
+     */
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Lấy cấu hình tự điều chỉnh kích thước bể.
+     *
+     * @return Cấu hình tự điều chỉnh.
+     */
+    public Adaptive getAdaptive() {
+        return this.adaptive;
+    }
+
+    /**
+     * Thiết lập cấu hình tự điều chỉnh kích thước bể.
+     *
+     * @param adaptive Cấu hình tự điều chỉnh cần thiết lập.
+     */
+    public void setAdaptive(Adaptive adaptive) {
+        this.adaptive = adaptive;
+    }
+
     /**
      * Phương thức toString cung cấp chuỗi mô tả cho các thuộc tính của đối tượng Pool.
      *
@@ -181,6 +238,7 @@ public class Pool {
      */
     public String toString() {
         return MoreObjects.toStringHelper(this)
+                .add("name", this.name)
                 .add("maxTotal", this.maxTotal)
                 .add("maxIdle", this.maxIdle)
                 .add("minIdle", this.minIdle)
@@ -189,7 +247,90 @@ public class Pool {
                 .add("blockWhenExhausted", this.blockWhenExhausted)
                 .add("minEvictableIdleTime", this.minEvictableIdleDuration)
                 .add("softMinEvictableIdleTime", this.softMinEvictableIdleDuration)
+                .add("type", this.type)
+                .add("adaptive", this.adaptive)
                 .toString();
     }
+
+    /**
+     * Các cài đặt bể đối tượng.
+     */
+    public enum Type {
+        /**
+         * {@link org.apache.commons.pool2.impl.GenericObjectPool}, mượn và trả đối tượng qua hàng đợi có khóa.
+         */
+        GENERIC,
+        /**
+         * {@link vi.legend.assistant.definition.support.ThreadCachedObjectPool}, bộ nhớ đệm theo luồng và hàng đợi
+         * không khóa, dành cho các bể được mượn và trả với tần suất cao.
+         */
+        THREAD_CACHED
+    }
+
+    /**
+     * Cấu hình tự điều chỉnh maxIdle/minIdle theo mức sử dụng thực tế.
+     * <p>
+     * Sau mỗi chu kỳ, nếu có yêu cầu phải chờ lâu hơn {@code waitThreshold} hoặc bị từ chối vì bể cạn thì maxIdle
+     * được tăng gấp đôi và minIdle được nâng lên bằng số đối tượng sử dụng đồng thời cao nhất. Nếu số đối tượng sử
+     * dụng đồng thời cao nhất chưa tới một nửa maxIdle thì cả hai được giảm dần về mức đó. maxIdle luôn nằm trong
+     * khoảng [{@code lowerBound}, {@code upperBound}].
+     */
+    public static class Adaptive {
+        private Boolean enabled = false; // Bật tự điều chỉnh.
+        private Integer lowerBound = 0; // Giá trị nhỏ nhất của maxIdle.
+        private Integer upperBound; // Giá trị lớn nhất của maxIdle, mặc định bằng maxTotal.
+        private Duration waitThreshold = Duration.ofMillis(10); // Thời gian chờ được coi là bể đang thiếu đối tượng.
+        private Duration interval = Duration.ofSeconds(30); // Chu kỳ điều chỉnh.
+
+        public Boolean getEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getLowerBound() {
+            return this.lowerBound;
+        }
+
+        public void setLowerBound(Integer lowerBound) {
+            this.lowerBound = lowerBound;
+        }
+
+        public Integer getUpperBound() {
+            return this.upperBound;
+        }
+
+        public void setUpperBound(Integer upperBound) {
+            this.upperBound = upperBound;
+        }
+
+        public Duration getWaitThreshold() {
+            return this.waitThreshold;
+        }
+
+        public void setWaitThreshold(Duration waitThreshold) {
+            this.waitThreshold = waitThreshold;
+        }
+
+        public Duration getInterval() {
+            return this.interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("enabled", this.enabled)
+                    .add("lowerBound", this.lowerBound)
+                    .add("upperBound", this.upperBound)
+                    .add("waitThreshold", this.waitThreshold)
+                    .add("interval", this.interval)
+                    .toString();
+        }
+    }
 }
 
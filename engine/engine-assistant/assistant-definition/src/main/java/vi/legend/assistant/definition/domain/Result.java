@@ -1,6 +1,8 @@
 package vi.legend.assistant.definition.domain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.base.MoreObjects;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.io.Serializable;
@@ -16,26 +18,28 @@ import vi.legend.assistant.definition.constants.ErrorCodes;
  * Lớp đại diện cho đối tượng phản hồi đồng nhất.
  * Định nghĩa đối tượng trả về đồng nhất cho tất cả các API REST.
  * Ví dụ: new Result<T>().ok().message("XXX")
+ * <p>
+ * Dấu thời gian được lưu dưới dạng epoch millisecond, đối tượng {@link Error} chỉ được tạo khi có thông tin lỗi.
+ * Việc serialize do {@link ResultSerializer} đảm nhận, định dạng JSON giữ nguyên như trước.
  */
 @Schema(
         title = "Đối tượng phản hồi đồng nhất",
         description = "Định nghĩa đối tượng trả về đồng nhất cho tất cả các API REST",
         example = "new Result<T>().ok().message(\"XXX\")"
 )
+@JsonSerialize(using = ResultSerializer.class)
 public class Result<T> implements Serializable {
     @Schema(
             title = "Dấu thời gian phản hồi",
+            type = "string",
             pattern = "yyyy-MM-dd HH:mm:ss"
     )
-    @JsonFormat(
-            pattern = "yyyy-MM-dd HH:mm:ss"
-    )
-    private final Date timestamp = new Date();
+    private long timestamp = System.currentTimeMillis();
 
     @Schema(
             title = "Thông tin lỗi kiểm tra"
     )
-    private final Error error = new Error();
+    private Error error;
 
     @Schema(
             title = "Mã phản hồi tùy chỉnh"
@@ -255,8 +259,19 @@ public class Result<T> implements Serializable {
      */
     public static <T> Result<T> failure(Feedback feedback, T data) {
         Feedback result = ObjectUtils.isNotEmpty(feedback) ? feedback : ErrorCodes.DISCOVERED_UNRECORDED_ERROR_EXCEPTION;
-        Integer code = ErrorCodeMapper.get((Feedback)result);
-        return failure(feedback.getMessage(), code, feedback.getStatus(), data);
+        return failure(result.getMessage(), codeOf(result), result.getStatus(), data);
+    }
+
+    /**
+     * Lấy mã phản hồi của Feedback. Feedback chưa được đăng ký trong {@link ErrorCodeMapper}
+     * dùng mã mặc định theo nhóm của nó.
+     *
+     * @param feedback Đối tượng Feedback.
+     * @return Mã phản hồi.
+     */
+    private static int codeOf(Feedback feedback) {
+        Integer code = ErrorCodeMapper.get(feedback);
+        return ObjectUtils.isNotEmpty(code) ? code : feedback.getSequence();
     }
 
     /**
@@ -319,8 +334,7 @@ public class Result<T> implements Serializable {
      * @return Đối tượng Result trống.
      */
     public static <T> Result<T> empty(Feedback feedback) {
-        int code = ErrorCodeMapper.get(feedback);
-        return empty(feedback.getMessage(), code, feedback.getStatus());
+        return empty(feedback.getMessage(), codeOf(feedback), feedback.getStatus());
     }
 
     /**
@@ -367,13 +381,42 @@ public class Result<T> implements Serializable {
     }
 
     public Date getTimestamp() {
+        return new Date(this.timestamp);
+    }
+
+    /**
+     * Dấu thời gian phản hồi dạng epoch millisecond, không tạo đối tượng Date.
+     *
+     * @return Epoch millisecond.
+     */
+    public long epochMillis() {
         return this.timestamp;
     }
 
+    @JsonSetter("timestamp")
+    @JsonFormat(
+            pattern = "yyyy-MM-dd HH:mm:ss"
+    )
+    private void timestamp(Date timestamp) {
+        this.timestamp = ObjectUtils.isNotEmpty(timestamp) ? timestamp.getTime() : 0L;
+    }
+
+    /**
+     * Thông tin lỗi, null nếu chưa có thông tin lỗi nào được thiết lập.
+     *
+     * @return Đối tượng Error hoặc null.
+     */
     public Error getError() {
         return this.error;
     }
 
+    private Error error() {
+        if (this.error == null) {
+            this.error = new Error();
+        }
+        return this.error;
+    }
+
     public Result<T> code(int code) {
         this.code = code;
         return this;
@@ -395,7 +438,7 @@ public class Result<T> implements Serializable {
     }
 
     public Result<T> type(Feedback feedback) {
-        this.code = ErrorCodeMapper.get(feedback);
+        this.code = codeOf(feedback);
         this.message = feedback.getMessage();
         this.status = feedback.getStatus();
         return this;
@@ -412,24 +455,29 @@ public class Result<T> implements Serializable {
     }
 
     public Result<T> stackTrace(StackTraceElement[] stackTrace) {
-        this.error.setStackTrace(stackTrace);
+        if (stackTrace != null || this.error != null) {
+            this.error().setStackTrace(stackTrace);
+        }
         return this;
     }
 
     public Result<T> detail(String detail) {
-        this.error.setDetail(detail);
+        if (detail != null || this.error != null) {
+            this.error().setDetail(detail);
+        }
         return this;
     }
 
     public Result<T> validation(String message, String code, String field) {
-        this.error.setMessage(message);
-        this.error.setCode(code);
-        this.error.setField(field);
+        Error error = this.error();
+        error.setMessage(message);
+        error.setCode(code);
+        error.setField(field);
         return this;
     }
 
     public String toString() {
-        return MoreObjects.toStringHelper(this).add("code", this.code).add("message", this.message).add("path", this.path).add("data", this.data).add("status", this.status).add("timestamp", this.timestamp).add("error", this.error).toString();
+        return MoreObjects.toStringHelper(this).add("code", this.code).add("message", this.message).add("path", this.path).add("data", this.data).add("status", this.status).add("timestamp", this.getTimestamp()).add("error", this.error).toString();
     }
 
     public Map<String, Object> toModel() {
@@ -439,8 +487,8 @@ public class Result<T> implements Serializable {
         result.put("path", this.path);
         result.put("data", this.data);
         result.put("status", this.status);
-        result.put("timestamp", this.timestamp);
-        result.put("error", this.error);
+        result.put("timestamp", this.getTimestamp());
+        result.put("error", this.error != null ? this.error : new Error());
         return result;
     }
 }
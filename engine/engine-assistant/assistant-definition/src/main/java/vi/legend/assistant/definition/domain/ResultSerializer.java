@@ -0,0 +1,142 @@
+package vi.legend.assistant.definition.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Serializer viết tay cho {@link Result}, ghi thẳng các trường của envelope quanh phần {@code data}
+ * thay vì đi qua BeanSerializer và reflection.
+ * <p>
+ * Định dạng đầu ra giống hệt cách serialize cũ: thứ tự trường timestamp, error, code, message, path, data,
+ * status, traceId; timestamp theo mẫu {@code yyyy-MM-dd HH:mm:ss} và múi giờ của ObjectMapper; đối tượng
+ * error luôn có mặt kể cả khi Result không có lỗi. Nếu ObjectMapper cấu hình bỏ qua giá trị null
+ * (NON_NULL, NON_ABSENT, NON_EMPTY, NON_DEFAULT) thì các trường null bị bỏ qua.
+ */
+public final class ResultSerializer extends StdSerializer<Result<?>> {
+
+    private static final String TIMESTAMP_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString CODE = new SerializedString("code");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString PATH = new SerializedString("path");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString TRACE_ID = new SerializedString("traceId");
+    private static final SerializableString DETAIL = new SerializedString("detail");
+    private static final SerializableString FIELD = new SerializedString("field");
+
+    private volatile Formatter formatter;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ResultSerializer() {
+        super((Class) Result.class);
+    }
+
+    @Override
+    public void serialize(Result<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        boolean skipNulls = skipNulls(provider);
+
+        gen.writeStartObject(value);
+        gen.writeFieldName(TIMESTAMP);
+        gen.writeString(formatter(provider).format(value.epochMillis()));
+
+        gen.writeFieldName(ERROR);
+        writeError(value.getError(), gen, provider, skipNulls);
+
+        gen.writeFieldName(CODE);
+        gen.writeNumber(value.getCode());
+        writeString(MESSAGE, value.getMessage(), gen, skipNulls);
+        writeString(PATH, value.getPath(), gen, skipNulls);
+
+        Object data = value.getData();
+        if (data != null) {
+            provider.defaultSerializeField("data", data, gen);
+        } else if (!skipNulls) {
+            gen.writeNullField("data");
+        }
+
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(value.getStatus());
+        writeString(TRACE_ID, value.getTraceId(), gen, skipNulls);
+        gen.writeEndObject();
+    }
+
+    private static void writeError(Error error, JsonGenerator gen, SerializerProvider provider, boolean skipNulls) throws IOException {
+        gen.writeStartObject();
+        if (error != null) {
+            writeString(DETAIL, error.getDetail(), gen, skipNulls);
+            writeString(MESSAGE, error.getMessage(), gen, skipNulls);
+            writeString(CODE, error.getCode(), gen, skipNulls);
+            writeString(FIELD, error.getField(), gen, skipNulls);
+            StackTraceElement[] stackTrace = error.getStackTrace();
+            if (stackTrace != null) {
+                provider.defaultSerializeField("stackTrace", stackTrace, gen);
+            } else if (!skipNulls) {
+                gen.writeNullField("stackTrace");
+            }
+        } else if (!skipNulls) {
+            gen.writeNullField("detail");
+            gen.writeNullField("message");
+            gen.writeNullField("code");
+            gen.writeNullField("field");
+            gen.writeNullField("stackTrace");
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeString(SerializableString name, String value, JsonGenerator gen, boolean skipNulls) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        } else if (!skipNulls) {
+            gen.writeFieldName(name);
+            gen.writeNull();
+        }
+    }
+
+    private static boolean skipNulls(SerializerProvider provider) {
+        JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(Result.class).getValueInclusion();
+        return inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS
+                && inclusion != JsonInclude.Include.CUSTOM;
+    }
+
+    /**
+     * DateTimeFormatter theo múi giờ và Locale của ObjectMapper, chỉ tạo lại khi cấu hình thay đổi.
+     */
+    private Formatter formatter(SerializerProvider provider) {
+        TimeZone timeZone = provider.getTimeZone();
+        Locale locale = provider.getLocale();
+        Formatter current = this.formatter;
+        if (current == null || !current.matches(timeZone, locale)) {
+            current = new Formatter(timeZone, locale);
+            this.formatter = current;
+        }
+        return current;
+    }
+
+    private record Formatter(TimeZone timeZone, Locale locale, DateTimeFormatter delegate) {
+
+        Formatter(TimeZone timeZone, Locale locale) {
+            this(timeZone, locale, DateTimeFormatter.ofPattern(TIMESTAMP_PATTERN, locale).withZone(timeZone.toZoneId()));
+        }
+
+        boolean matches(TimeZone timeZone, Locale locale) {
+            return (this.timeZone == timeZone || this.timeZone.equals(timeZone)) && this.locale.equals(locale);
+        }
+
+        String format(long epochMillis) {
+            return delegate.format(Instant.ofEpochMilli(epochMillis));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package vi.legend.assistant.definition.exception;
 
 import vi.legend.assistant.definition.domain.Result;
+import vi.legend.assistant.definition.support.StackTraceRenderer;
 
 /**
  * Lớp trừu tượng đại diện cho các ngoại lệ thời gian chạy trong hệ thống.
@@ -52,12 +53,12 @@ public abstract class AbstractRuntimeException extends RuntimeException implemen
 
     /**
      * Tạo đối tượng `Result` từ ngoại lệ này.
-     * Lưu trữ thông tin lỗi, stack trace và chi tiết của ngoại lệ vào đối tượng `Result`.
+     * Lưu trữ thông tin lỗi, stack trace (đã rút gọn bởi `StackTraceRenderer`) và chi tiết của ngoại lệ vào đối tượng `Result`.
      * @return Đối tượng `Result` chứa thông tin lỗi.
      */
     public Result<String> getResult() {
         Result<String> result = Result.failure(this.getFeedback());
-        result.stackTrace(super.getStackTrace());
+        result.stackTrace(StackTraceRenderer.getInstance().render(this));
         result.detail(super.getMessage());
         return result;
     }
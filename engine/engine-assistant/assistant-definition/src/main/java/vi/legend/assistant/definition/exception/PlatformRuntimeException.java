@@ -23,6 +23,14 @@ public class PlatformRuntimeException extends AbstractRuntimeException {
         super(message, cause, enableSuppression, writableStackTrace);
     }
 
+    /**
+     * Biến thể không có stack trace, dành cho các lỗi nghiệp vụ đã lường trước (dữ liệu không hợp lệ, yêu cầu
+     * bị từ chối...). Bỏ qua {@code fillInStackTrace}, chi phí tạo ngoại lệ gần như chỉ còn là cấp phát đối tượng.
+     */
+    protected PlatformRuntimeException(String message, boolean writableStackTrace) {
+        super(message, null, true, writableStackTrace);
+    }
+
     public Feedback getFeedback() {
         return ErrorCodes.INTERNAL_SERVER_ERROR;
     }
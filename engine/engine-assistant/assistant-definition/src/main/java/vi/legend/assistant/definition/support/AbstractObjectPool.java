@@ -1,7 +1,10 @@
 package vi.legend.assistant.definition.support;
 
 import jakarta.annotation.Nonnull;
-import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.ObjectPool;
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
@@ -10,15 +13,42 @@ import org.slf4j.LoggerFactory;
 import vi.legend.assistant.definition.domain.Pool;
 import vi.legend.assistant.definition.exception.BorrowObjectFromPoolErrorException;
 
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Lớp trừu tượng AbstractObjectPool đại diện cho một bể đối tượng tổng quát (generic object pool)
  * để quản lý các đối tượng loại T, sử dụng cấu hình được cung cấp từ lớp Pool.
+ * <p>
+ * Cài đặt bên dưới được chọn theo {@link Pool#getType()}: {@link GenericObjectPool} hoặc
+ * {@link ThreadCachedObjectPool}.
+ * <p>
+ * Ngoài {@link #get()} chặn luồng tối đa {@link Pool#getMaxWait()}, bể còn hỗ trợ {@link #borrowAsync()} không chặn
+ * luồng nào: khi bể cạn, yêu cầu được xếp hàng FIFO và nhận trực tiếp đối tượng được trả lại tiếp theo. Nên dùng
+ * {@link #lease()} hoặc {@link #borrowAsync()} cùng try-with-resources để đối tượng luôn được trả lại.
+ * <p>
+ * Mỗi bể được đăng ký vào {@link ObjectPoolRegistry} theo tên và ghi lại {@link PoolStatistics}. Tên đặt qua
+ * {@link Pool#setName(String)} phải là duy nhất; khi không đặt tên, bể nhận tên mặc định {@code <tên lớp>#<số thứ tự>}.
+ * Khi {@link Pool.Adaptive#getEnabled()} bật, maxIdle/minIdle được điều chỉnh định kỳ theo mức sử dụng thực tế. Gọi
+ * {@link #close()} khi không dùng bể nữa.
  *
  * @param <T> Loại đối tượng mà bể sẽ quản lý.
  */
 public abstract class AbstractObjectPool<T> {
     private static final Logger log = LoggerFactory.getLogger(AbstractObjectPool.class); // Logger để ghi log.
-    private final GenericObjectPool<T> genericObjectPool; // Bể đối tượng tổng quát sử dụng thư viện Apache Commons Pool.
+    private static final AtomicLong SEQUENCE = new AtomicLong(); // Số thứ tự cho tên mặc định của bể.
+    private final ObjectPool<T> objectPool; // Bể đối tượng bên dưới, theo chuẩn của thư viện Apache Commons Pool.
+    private final Queue<CompletableFuture<Lease<T>>> waiters = new ConcurrentLinkedQueue<>(); // Các yêu cầu mượn bất đồng bộ đang chờ, theo thứ tự FIFO.
+    private final boolean blockWhenExhausted; // Cho phép chờ khi bể cạn.
+    private final Duration maxWait; // Thời gian chờ tối đa, âm nghĩa là chờ không giới hạn.
+    private final String name; // Tên của bể.
+    private final Pool.Adaptive adaptive; // Cấu hình tự điều chỉnh kích thước bể.
+    private final PoolStatistics statistics; // Số liệu của bể.
 
     /**
      * Constructor được bảo vệ để khởi tạo AbstractObjectPool với một PooledObjectFactory và cấu hình Pool.
@@ -27,6 +57,27 @@ public abstract class AbstractObjectPool<T> {
      * @param pool Cấu hình cho bể đối tượng.
      */
     protected AbstractObjectPool(@Nonnull PooledObjectFactory<T> pooledObjectFactory, @Nonnull Pool pool) {
+        this.adaptive = pool.getAdaptive() != null ? pool.getAdaptive() : new Pool.Adaptive();
+        if (Boolean.TRUE.equals(this.adaptive.getEnabled())
+                && (this.adaptive.getInterval() == null || this.adaptive.getInterval().toMillis() <= 0)) {
+            throw new IllegalArgumentException("Chu kỳ tự điều chỉnh của bể phải lớn hơn 0, hiện tại: " + this.adaptive.getInterval());
+        }
+        this.statistics = new PoolStatistics(this.adaptive.getWaitThreshold() != null ? this.adaptive.getWaitThreshold().toNanos() : Long.MAX_VALUE);
+        PooledObjectFactory<T> factory = new CountingPooledObjectFactory<>(pooledObjectFactory, this.statistics);
+        this.objectPool = pool.getType() == Pool.Type.THREAD_CACHED ?
+                new ThreadCachedObjectPool<>(factory, pool) : createGenericObjectPool(factory, pool);
+        this.blockWhenExhausted = pool.getBlockWhenExhausted();
+        this.maxWait = pool.getMaxWait();
+        this.name = StringUtils.isNotBlank(pool.getName()) ? pool.getName() : getClass().getName() + "#" + SEQUENCE.incrementAndGet();
+        try {
+            ObjectPoolRegistry.register(this);
+        } catch (IllegalStateException e) {
+            this.objectPool.close();
+            throw e;
+        }
+    }
+
+    private static <T> GenericObjectPool<T> createGenericObjectPool(PooledObjectFactory<T> pooledObjectFactory, Pool pool) {
         GenericObjectPoolConfig<T> config = new GenericObjectPoolConfig<>();
         config.setMaxTotal(pool.getMaxTotal());
         config.setMaxIdle(pool.getMaxIdle());
@@ -36,7 +87,7 @@ public abstract class AbstractObjectPool<T> {
         config.setSoftMinEvictableIdleDuration(pool.getSoftMinEvictableIdleDuration());
         config.setLifo(pool.getLifo());
         config.setBlockWhenExhausted(pool.getBlockWhenExhausted());
-        this.genericObjectPool = new GenericObjectPool<>(pooledObjectFactory, config);
+        return new GenericObjectPool<>(pooledObjectFactory, config);
     }
 
     /**
@@ -46,25 +97,364 @@ public abstract class AbstractObjectPool<T> {
      * @throws BorrowObjectFromPoolErrorException nếu không thể lấy đối tượng từ bể.
      */
     public T get() {
+        long start = System.nanoTime();
         try {
-            T object = this.genericObjectPool.borrowObject();
-            log.debug("[Herodotus] |- Lấy đối tượng từ bể đối tượng.");
+            T object = this.objectPool.borrowObject();
+            statistics.borrowed(System.nanoTime() - start);
             return object;
         } catch (Exception var2) {
+            if (var2 instanceof NoSuchElementException) {
+                statistics.exhausted();
+            }
             log.error("[Herodotus] |- Không thể lấy đối tượng từ bể.", var2);
             throw new BorrowObjectFromPoolErrorException("Không thể lấy đối tượng từ bể.");
         }
     }
 
     /**
-     * Đóng đối tượng và trả lại nó vào bể.
+     * Mượn một đối tượng dưới dạng {@link Lease}, dùng với try-with-resources.
+     *
+     * @return Quyền sử dụng đối tượng.
+     * @throws BorrowObjectFromPoolErrorException nếu không thể lấy đối tượng từ bể.
+     */
+    public Lease<T> lease() {
+        return new Lease<>(this, get());
+    }
+
+    /**
+     * Mượn một đối tượng nếu bể còn sẵn, không chờ và không xếp hàng.
+     * <p>
+     * Dùng cho nơi gọi không được phép chặn luồng (ví dụ event loop của Netty) và có cách xử lý thay thế khi bể cạn.
+     * Khi đã có yêu cầu bất đồng bộ đang chờ, phương thức trả về null để không vượt lên trước hàng đợi.
+     *
+     * @return Quyền sử dụng đối tượng, hoặc null nếu bể đã cạn.
+     */
+    public Lease<T> tryLease() {
+        if (!waiters.isEmpty()) {
+            return null;
+        }
+        T object;
+        try {
+            object = tryBorrow();
+        } catch (Exception e) {
+            log.error("[Herodotus] |- Không thể lấy đối tượng từ bể.", e);
+            return null;
+        }
+        if (object == null) {
+            statistics.exhausted();
+            return null;
+        }
+        statistics.borrowed(0);
+        return new Lease<>(this, object);
+    }
+
+    /**
+     * Mượn một đối tượng mà không chặn luồng gọi, dùng được trên event loop của Netty và trong luồng ảo.
+     * <p>
+     * Nếu bể còn đối tượng, kết quả hoàn thành ngay. Nếu bể cạn, yêu cầu được xếp hàng và hoàn thành theo thứ tự
+     * FIFO khi có đối tượng được trả lại: đối tượng được chuyển thẳng cho yêu cầu đang chờ mà không qua bể (không
+     * gọi passivate/activate). Sau {@link Pool#getMaxWait()} yêu cầu thất bại với
+     * {@link BorrowObjectFromPoolErrorException}.
+     *
+     * @return Quyền sử dụng đối tượng, hoàn thành khi có đối tượng.
+     */
+    public CompletableFuture<Lease<T>> borrowAsync() {
+        T object = null;
+        // Đã có yêu cầu đang chờ thì xếp hàng sau chúng, không lấy trước đối tượng vừa được trả lại.
+        if (waiters.isEmpty()) {
+            try {
+                object = tryBorrow();
+            } catch (Exception e) {
+                log.error("[Herodotus] |- Không thể lấy đối tượng từ bể.", e);
+                return CompletableFuture.failedFuture(new BorrowObjectFromPoolErrorException("Không thể lấy đối tượng từ bể.", e));
+            }
+        }
+        if (object != null) {
+            statistics.borrowed(0);
+            return CompletableFuture.completedFuture(new Lease<>(this, object));
+        }
+        if (!blockWhenExhausted) {
+            statistics.exhausted();
+            return CompletableFuture.failedFuture(new BorrowObjectFromPoolErrorException("Bể đối tượng đã cạn."));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Lease<T>> waiter = new CompletableFuture<>();
+        waiter.whenComplete((lease, error) -> {
+            if (error == null) {
+                statistics.borrowed(System.nanoTime() - start);
+            } else if (error instanceof BorrowObjectFromPoolErrorException) {
+                statistics.exhausted();
+            }
+        });
+        waiters.add(waiter);
+        if (maxWait != null && !maxWait.isNegative()) {
+            CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                if (waiter.completeExceptionally(new BorrowObjectFromPoolErrorException("Hết thời gian chờ đối tượng từ bể."))) {
+                    waiters.remove(waiter);
+                }
+            });
+        }
+        // Một đối tượng có thể đã được trả lại giữa lần thử đầu tiên và lúc xếp hàng.
+        dispatch();
+        return waiter;
+    }
+
+    /**
+     * Đóng đối tượng và trả lại nó vào bể. Nếu có yêu cầu bất đồng bộ đang chờ, đối tượng được chuyển thẳng cho
+     * yêu cầu đứng đầu hàng đợi.
      *
      * @param client Đối tượng cần trả lại vào bể.
      */
     public void close(T client) {
-        if (ObjectUtils.isNotEmpty(client)) {
-            log.debug("[Herodotus] |- Đóng đối tượng và trả lại vào bể.");
-            this.genericObjectPool.returnObject(client);
+        if (client != null) {
+            statistics.returned();
+            release(client);
+        }
+    }
+
+    /**
+     * Hủy đối tượng không còn dùng được, chỗ trống được dùng để phục vụ yêu cầu đang chờ.
+     *
+     * @param client Đối tượng cần hủy.
+     */
+    public void invalidate(T client) {
+        if (client != null) {
+            statistics.returned();
+            try {
+                this.objectPool.invalidateObject(client);
+            } catch (Exception e) {
+                log.warn("[Herodotus] |- Không thể hủy đối tượng của bể.", e);
+            }
+            dispatch();
+        }
+    }
+
+    /**
+     * Đóng bể: gỡ khỏi {@link ObjectPoolRegistry}, hủy việc tự điều chỉnh, làm thất bại các yêu cầu bất đồng bộ
+     * đang chờ và hủy các đối tượng nhàn rỗi. Đối tượng đang được mượn sẽ bị hủy khi được trả lại.
+     */
+    public void close() {
+        ObjectPoolRegistry.unregister(this);
+        CompletableFuture<Lease<T>> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.completeExceptionally(new BorrowObjectFromPoolErrorException("Bể đối tượng đã đóng."));
+        }
+        this.objectPool.close();
+    }
+
+    /**
+     * Lấy tên của bể.
+     *
+     * @return Tên của bể.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Lấy số liệu của bể.
+     *
+     * @return Số liệu của bể.
+     */
+    public PoolStatistics getStatistics() {
+        return statistics;
+    }
+
+    public int getNumActive() {
+        return this.objectPool.getNumActive();
+    }
+
+    public int getNumIdle() {
+        return this.objectPool.getNumIdle();
+    }
+
+    public int getMaxIdle() {
+        return this.objectPool instanceof ThreadCachedObjectPool<T> threadCachedObjectPool ?
+                threadCachedObjectPool.getMaxIdle() : ((GenericObjectPool<T>) this.objectPool).getMaxIdle();
+    }
+
+    public int getMinIdle() {
+        return this.objectPool instanceof ThreadCachedObjectPool<T> threadCachedObjectPool ?
+                threadCachedObjectPool.getMinIdle() : ((GenericObjectPool<T>) this.objectPool).getMinIdle();
+    }
+
+    public int getMaxTotal() {
+        return this.objectPool instanceof ThreadCachedObjectPool<T> threadCachedObjectPool ?
+                threadCachedObjectPool.getMaxTotal() : ((GenericObjectPool<T>) this.objectPool).getMaxTotal();
+    }
+
+    Pool.Adaptive getAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Điều chỉnh maxIdle/minIdle theo số liệu của chu kỳ vừa qua, xem {@link Pool.Adaptive}.
+     */
+    void adapt() {
+        PoolStatistics.Interval interval = statistics.roll();
+        int maxTotal = getMaxTotal();
+        int upper = Math.min(maxTotal, adaptive.getUpperBound() != null ? adaptive.getUpperBound() : maxTotal);
+        int lower = Math.min(upper, Math.max(0, adaptive.getLowerBound()));
+        int maxIdle = getMaxIdle();
+        int minIdle = getMinIdle();
+        int peak = interval.peakActive();
+
+        int newMaxIdle = maxIdle;
+        int newMinIdle = minIdle;
+        if (interval.slowBorrows() > 0 || interval.exhausted() > 0) {
+            newMaxIdle = Math.max(peak, maxIdle * 2);
+            newMinIdle = Math.max(minIdle, peak);
+        } else if (peak < maxIdle / 2) {
+            newMaxIdle = Math.max(peak, maxIdle - (maxIdle - peak) / 2);
+            newMinIdle = Math.min(minIdle, peak);
+        }
+        newMaxIdle = Math.max(lower, Math.min(upper, newMaxIdle));
+        newMinIdle = Math.min(newMaxIdle, newMinIdle);
+
+        if (newMaxIdle == maxIdle && newMinIdle == minIdle) {
+            return;
+        }
+        if (this.objectPool instanceof ThreadCachedObjectPool<T> threadCachedObjectPool) {
+            threadCachedObjectPool.setMaxIdle(newMaxIdle);
+            threadCachedObjectPool.setMinIdle(newMinIdle);
+        } else {
+            GenericObjectPool<T> genericObjectPool = (GenericObjectPool<T>) this.objectPool;
+            genericObjectPool.setMaxIdle(newMaxIdle);
+            genericObjectPool.setMinIdle(newMinIdle);
+        }
+        log.debug("[Herodotus] |- Điều chỉnh bể [{}]: maxIdle [{}] -> [{}], minIdle [{}] -> [{}].", name, maxIdle, newMaxIdle, minIdle, newMinIdle);
+
+        try {
+            // Hủy các đối tượng nhàn rỗi vượt quá maxIdle mới.
+            for (int excess = getNumIdle() - newMaxIdle; excess > 0; excess--) {
+                T object = tryBorrow();
+                if (object == null) {
+                    break;
+                }
+                this.objectPool.invalidateObject(object);
+            }
+            // Chuẩn bị sẵn đối tượng cho đến minIdle mới.
+            for (int missing = newMinIdle - getNumIdle(); missing > 0 && getNumActive() + getNumIdle() < maxTotal; missing--) {
+                this.objectPool.addObject();
+            }
+        } catch (Exception e) {
+            log.warn("[Herodotus] |- Không thể điều chỉnh số đối tượng nhàn rỗi của bể [{}].", name, e);
+        }
+    }
+
+    /**
+     * Trả đối tượng: chuyển thẳng cho yêu cầu đang chờ nếu có, nếu không thì trả lại bể bên dưới.
+     */
+    private void release(T client) {
+        if (handOff(client)) {
+            return;
+        }
+        try {
+            this.objectPool.returnObject(client);
+        } catch (Exception e) {
+            log.warn("[Herodotus] |- Không thể trả đối tượng vào bể.", e);
+        }
+        dispatch();
+    }
+
+    /**
+     * Chuyển đối tượng cho yêu cầu đang chờ đầu tiên còn hiệu lực.
+     *
+     * @return true nếu đã chuyển được.
+     */
+    private boolean handOff(T client) {
+        CompletableFuture<Lease<T>> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.complete(new Lease<>(this, client))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Phục vụ các yêu cầu đang chờ bằng các đối tượng còn trong bể.
+     */
+    private void dispatch() {
+        while (!waiters.isEmpty()) {
+            T object;
+            try {
+                object = tryBorrow();
+            } catch (Exception e) {
+                log.error("[Herodotus] |- Không thể lấy đối tượng từ bể.", e);
+                return;
+            }
+            if (object == null) {
+                return;
+            }
+            if (!handOff(object)) {
+                release(object);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lấy một đối tượng mà không chờ.
+     *
+     * @return Đối tượng loại T, hoặc null nếu bể đã cạn.
+     */
+    private T tryBorrow() throws Exception {
+        if (this.objectPool instanceof ThreadCachedObjectPool<T> threadCachedObjectPool) {
+            return threadCachedObjectPool.tryBorrowObject();
+        }
+        try {
+            return ((GenericObjectPool<T>) this.objectPool).borrowObject(Duration.ZERO);
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Nhà máy bọc ngoài nhà máy thật để đếm số đối tượng được tạo và bị hủy.
+     */
+    private static final class CountingPooledObjectFactory<T> implements PooledObjectFactory<T> {
+
+        private final PooledObjectFactory<T> delegate;
+        private final PoolStatistics statistics;
+
+        private CountingPooledObjectFactory(PooledObjectFactory<T> delegate, PoolStatistics statistics) {
+            this.delegate = delegate;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public PooledObject<T> makeObject() throws Exception {
+            PooledObject<T> pooledObject = delegate.makeObject();
+            statistics.created();
+            return pooledObject;
+        }
+
+        @Override
+        public void destroyObject(PooledObject<T> p) throws Exception {
+            destroyObject(p, DestroyMode.NORMAL);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<T> p, DestroyMode destroyMode) throws Exception {
+            statistics.destroyed();
+            delegate.destroyObject(p, destroyMode);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<T> p) {
+            return delegate.validateObject(p);
+        }
+
+        @Override
+        public void activateObject(PooledObject<T> p) throws Exception {
+            delegate.activateObject(p);
+        }
+
+        @Override
+        public void passivateObject(PooledObject<T> p) throws Exception {
+            delegate.passivateObject(p);
         }
     }
 }
@@ -130,19 +130,23 @@ public class ErrorCodeMapperBuilder {
     }
 
     public ErrorCodeMapper build() {
-        ErrorCodeMapper errorCodeMapper = ErrorCodeMapper.getInstance();
-        errorCodeMapper.append(this.unauthorizedConfigs);
-        errorCodeMapper.append(this.forbiddenConfigs);
-        errorCodeMapper.append(this.methodNotAllowedConfigs);
-        errorCodeMapper.append(this.notAcceptableConfigs);
-        errorCodeMapper.append(this.preconditionFailedConfigs);
-        errorCodeMapper.append(this.unsupportedMediaTypeConfigs);
-        errorCodeMapper.append(this.internalServerErrorConfigs);
-        errorCodeMapper.append(this.notImplementedConfigs);
-        errorCodeMapper.append(this.serviceUnavailableConfigs);
+        // Gom toàn bộ cấu hình rồi công bố một bản chụp duy nhất
+        Map<Feedback, Integer> configs = new LinkedHashMap<>();
+        configs.putAll(this.unauthorizedConfigs);
+        configs.putAll(this.forbiddenConfigs);
+        configs.putAll(this.methodNotAllowedConfigs);
+        configs.putAll(this.notAcceptableConfigs);
+        configs.putAll(this.preconditionFailedConfigs);
+        configs.putAll(this.unsupportedMediaTypeConfigs);
+        configs.putAll(this.internalServerErrorConfigs);
+        configs.putAll(this.notImplementedConfigs);
+        configs.putAll(this.serviceUnavailableConfigs);
         this.customizeConfigs.forEach((key, feedbacks) -> {
-            errorCodeMapper.append(feedbacks);
+            configs.putAll(feedbacks);
         });
+
+        ErrorCodeMapper errorCodeMapper = ErrorCodeMapper.getInstance();
+        errorCodeMapper.append(configs);
         return errorCodeMapper;
     }
 }
\ No newline at end of file
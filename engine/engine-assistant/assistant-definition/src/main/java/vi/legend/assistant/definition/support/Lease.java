@@ -0,0 +1,61 @@
+package vi.legend.assistant.definition.support;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Quyền sử dụng một đối tượng mượn từ {@link AbstractObjectPool}.
+ * <p>
+ * Dùng với try-with-resources để đối tượng luôn được trả lại bể, kể cả khi có ngoại lệ. Gọi {@link #close()}
+ * nhiều lần chỉ trả đối tượng một lần.
+ *
+ * <pre>{@code
+ * try (Lease<AntiSamy> lease = pool.lease()) {
+ *     return lease.get().scan(html);
+ * }
+ * }</pre>
+ *
+ * @param <T> Loại đối tượng được mượn.
+ */
+public final class Lease<T> implements AutoCloseable {
+
+    private final AbstractObjectPool<T> pool;
+    private final T object;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    Lease(AbstractObjectPool<T> pool, T object) {
+        this.pool = pool;
+        this.object = object;
+    }
+
+    /**
+     * Lấy đối tượng được mượn.
+     *
+     * @return Đối tượng loại T.
+     * @throws IllegalStateException nếu đối tượng đã được trả lại bể.
+     */
+    public T get() {
+        if (released.get()) {
+            throw new IllegalStateException("Lease has already been released");
+        }
+        return object;
+    }
+
+    /**
+     * Hủy đối tượng thay vì trả lại bể, dùng khi đối tượng không còn dùng được.
+     */
+    public void invalidate() {
+        if (released.compareAndSet(false, true)) {
+            pool.invalidate(object);
+        }
+    }
+
+    /**
+     * Trả đối tượng lại bể.
+     */
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.close(object);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package vi.legend.assistant.definition.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Danh sách các {@link AbstractObjectPool} đang hoạt động, theo tên.
+ * <p>
+ * Dùng để xuất số liệu của các bể (xem {@link #onRegister(Consumer)}) và để chạy định kỳ việc tự điều chỉnh kích
+ * thước của các bể có {@link vi.legend.assistant.definition.domain.Pool.Adaptive#getEnabled()} bật, trên một luồng
+ * nền dùng chung.
+ * <p>
+ * Tên bể là duy nhất: đăng ký trùng tên đặt qua {@link vi.legend.assistant.definition.domain.Pool#setName(String)} sẽ
+ * thất bại ngay, tên mặc định luôn khác nhau. Bể được gỡ khỏi danh sách khi {@link AbstractObjectPool#close()},
+ * việc tự điều chỉnh của nó cũng được hủy theo.
+ */
+public final class ObjectPoolRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectPoolRegistry.class);
+
+    private static final Map<String, AbstractObjectPool<?>> POOLS = new ConcurrentHashMap<>();
+    private static final Map<String, ScheduledFuture<?>> TUNERS = new ConcurrentHashMap<>();
+    private static final List<Consumer<AbstractObjectPool<?>>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<Consumer<AbstractObjectPool<?>>> UNREGISTER_LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static volatile ScheduledExecutorService scheduler;
+
+    private ObjectPoolRegistry() {
+    }
+
+    /**
+     * Đăng ký bể.
+     *
+     * @param pool Bể cần đăng ký.
+     * @throws IllegalStateException nếu đã có bể khác cùng tên.
+     */
+    static void register(AbstractObjectPool<?> pool) {
+        if (POOLS.putIfAbsent(pool.getName(), pool) != null) {
+            throw new IllegalStateException("Bể đối tượng [" + pool.getName() + "] đã được đăng ký, hãy đặt tên khác qua Pool#setName.");
+        }
+        LISTENERS.forEach(listener -> listener.accept(pool));
+
+        if (Boolean.TRUE.equals(pool.getAdaptive().getEnabled())) {
+            long interval = pool.getAdaptive().getInterval().toMillis();
+            TUNERS.put(pool.getName(), scheduler().scheduleWithFixedDelay(() -> adapt(pool), interval, interval, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Gỡ bể khỏi danh sách và hủy việc tự điều chỉnh của nó.
+     *
+     * @param pool Bể cần gỡ.
+     */
+    static void unregister(AbstractObjectPool<?> pool) {
+        if (!POOLS.remove(pool.getName(), pool)) {
+            return;
+        }
+        ScheduledFuture<?> tuner = TUNERS.remove(pool.getName());
+        if (tuner != null) {
+            tuner.cancel(false);
+        }
+        UNREGISTER_LISTENERS.forEach(listener -> listener.accept(pool));
+    }
+
+    /**
+     * Đăng ký hàm được gọi cho mỗi bể, gồm các bể đã có và các bể được tạo sau này.
+     *
+     * @param listener Hàm nhận bể.
+     */
+    public static void onRegister(Consumer<AbstractObjectPool<?>> listener) {
+        LISTENERS.add(listener);
+        POOLS.values().forEach(listener);
+    }
+
+    /**
+     * Đăng ký hàm được gọi khi một bể bị gỡ khỏi danh sách.
+     *
+     * @param listener Hàm nhận bể.
+     */
+    public static void onUnregister(Consumer<AbstractObjectPool<?>> listener) {
+        UNREGISTER_LISTENERS.add(listener);
+    }
+
+    /**
+     * Bỏ hàm đã đăng ký bằng {@link #onRegister(Consumer)} hoặc {@link #onUnregister(Consumer)}, ví dụ khi ngữ cảnh
+     * ứng dụng đóng.
+     *
+     * @param listener Hàm cần bỏ.
+     */
+    public static void removeListener(Consumer<AbstractObjectPool<?>> listener) {
+        LISTENERS.remove(listener);
+        UNREGISTER_LISTENERS.remove(listener);
+    }
+
+    public static AbstractObjectPool<?> get(String name) {
+        return POOLS.get(name);
+    }
+
+    public static Collection<AbstractObjectPool<?>> getPools() {
+        return Collections.unmodifiableCollection(POOLS.values());
+    }
+
+    private static void adapt(AbstractObjectPool<?> pool) {
+        try {
+            pool.adapt();
+        } catch (RuntimeException e) {
+            log.warn("[Herodotus] |- Không thể tự điều chỉnh bể [{}].", pool.getName(), e);
+        }
+    }
+
+    private static ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            synchronized (ObjectPoolRegistry.class) {
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "sanzee-object-pool-tuner");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return scheduler;
+    }
+}
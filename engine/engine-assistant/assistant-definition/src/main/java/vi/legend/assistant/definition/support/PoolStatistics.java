@@ -0,0 +1,130 @@
+package vi.legend.assistant.definition.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Số liệu của một {@link AbstractObjectPool}: số đối tượng được tạo, bị hủy, số lần mượn, số lần bể cạn và thời
+ * gian chờ khi mượn.
+ * <p>
+ * Các bộ đếm là tích lũy từ khi tạo bể. Ngoài ra còn có các số liệu theo chu kỳ (đồng thời cao nhất, số lần chờ
+ * lâu, số lần bể cạn) được dùng cho việc tự điều chỉnh kích thước bể và được đặt lại sau mỗi chu kỳ.
+ */
+public final class PoolStatistics {
+
+    private final long slowWaitNanos;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger intervalPeakActive = new AtomicInteger();
+    private final LongAdder intervalSlowBorrows = new LongAdder();
+    private final LongAdder intervalExhausted = new LongAdder();
+
+    private final List<LongConsumer> waitRecorders = new CopyOnWriteArrayList<>();
+
+    PoolStatistics(long slowWaitNanos) {
+        this.slowWaitNanos = slowWaitNanos;
+    }
+
+    void created() {
+        created.increment();
+    }
+
+    void destroyed() {
+        destroyed.increment();
+    }
+
+    void borrowed(long waitNanos) {
+        borrowed.increment();
+        this.waitNanos.add(waitNanos);
+        intervalPeakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        if (waitNanos > slowWaitNanos) {
+            intervalSlowBorrows.increment();
+        }
+        if (!waitRecorders.isEmpty()) {
+            for (LongConsumer recorder : waitRecorders) {
+                recorder.accept(waitNanos);
+            }
+        }
+    }
+
+    void returned() {
+        active.decrementAndGet();
+    }
+
+    void exhausted() {
+        exhausted.increment();
+        intervalExhausted.increment();
+    }
+
+    /**
+     * Lấy số liệu của chu kỳ vừa qua và bắt đầu chu kỳ mới.
+     */
+    Interval roll() {
+        int peak = intervalPeakActive.getAndSet(active.get());
+        return new Interval(peak, intervalSlowBorrows.sumThenReset(), intervalExhausted.sumThenReset());
+    }
+
+    /**
+     * Thêm nơi nhận thời gian chờ (nano giây) của từng lần mượn, ví dụ một Timer của Micrometer.
+     *
+     * @param waitRecorder Nơi nhận thời gian chờ.
+     */
+    public void addWaitRecorder(LongConsumer waitRecorder) {
+        waitRecorders.add(waitRecorder);
+    }
+
+    /**
+     * Bỏ nơi nhận thời gian chờ đã thêm bằng {@link #addWaitRecorder(LongConsumer)}.
+     *
+     * @param waitRecorder Nơi nhận thời gian chờ.
+     */
+    public void removeWaitRecorder(LongConsumer waitRecorder) {
+        waitRecorders.remove(waitRecorder);
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getDestroyedCount() {
+        return destroyed.sum();
+    }
+
+    public long getBorrowedCount() {
+        return borrowed.sum();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * Số đối tượng đang được mượn, tính cả các đối tượng được chuyển thẳng cho yêu cầu bất đồng bộ.
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Số liệu của một chu kỳ.
+     *
+     * @param peakActive  Số đối tượng được mượn đồng thời cao nhất.
+     * @param slowBorrows Số lần mượn phải chờ lâu hơn ngưỡng.
+     * @param exhausted   Số lần không mượn được vì bể cạn.
+     */
+    record Interval(int peakActive, long slowBorrows, long exhausted) {
+    }
+}
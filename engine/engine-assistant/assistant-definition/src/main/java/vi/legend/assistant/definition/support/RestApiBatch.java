@@ -0,0 +1,232 @@
+package vi.legend.assistant.definition.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Thực hiện đồng thời nhiều lời gọi của một {@link RestApiTemplate}.
+ * <p>
+ * Mỗi lời gọi chạy trên một luồng ảo. Số lời gọi chạy cùng lúc của mỗi template (theo loại template và baseUrl) bị
+ * giới hạn bởi {@link RestApiTemplate#getMaxConcurrency()}, kể cả khi nhiều lô chạy song song. Kết quả được trả về
+ * theo đúng thứ tự đầu vào, lời gọi lỗi hoặc quá thời gian không làm hỏng các lời gọi khác.
+ * <p>
+ * Khi {@link Options#coalesceBy(Function)} được thiết lập, các yêu cầu có cùng khóa trong cùng lô chỉ gọi một lần và
+ * dùng chung kết quả. Việc gộp không vượt ra ngoài lô vì mỗi lô có lời gọi và thời gian chờ riêng.
+ */
+public final class RestApiBatch {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sanzee-rest-batch-", 0).factory());
+
+    private static final Map<TemplateKey, Semaphore> LIMITS = new ConcurrentHashMap<>();
+
+    private RestApiBatch() {
+    }
+
+    /**
+     * Thực hiện các lời gọi và chờ tất cả hoàn thành.
+     *
+     * @param template Template thực hiện lời gọi.
+     * @param requests Các yêu cầu, theo thứ tự.
+     * @param call     Lời gọi cho mỗi yêu cầu.
+     * @param options  Tùy chọn của lô.
+     * @return Kết quả theo thứ tự đầu vào.
+     */
+    public static <T, R> BatchResult<R> execute(RestApiTemplate template, Collection<? extends T> requests,
+                                                Call<? super T, ? extends R> call, Options<? super T> options) {
+        return RestApiBatch.<T, R>executeAsync(template, requests, call, options).join();
+    }
+
+    /**
+     * Thực hiện các lời gọi mà không chặn luồng gọi.
+     *
+     * @param template Template thực hiện lời gọi.
+     * @param requests Các yêu cầu, theo thứ tự.
+     * @param call     Lời gọi cho mỗi yêu cầu.
+     * @param options  Tùy chọn của lô.
+     * @return Kết quả theo thứ tự đầu vào, hoàn thành khi mọi lời gọi đã kết thúc.
+     */
+    public static <T, R> CompletableFuture<BatchResult<R>> executeAsync(RestApiTemplate template, Collection<? extends T> requests,
+                                                                        Call<? super T, ? extends R> call, Options<? super T> options) {
+        TemplateKey templateKey = new TemplateKey(template.getClass(), template.getBaseUrl());
+        Semaphore limit = LIMITS.computeIfAbsent(templateKey, key -> new Semaphore(Math.max(1, template.getMaxConcurrency()), true));
+
+        List<CompletableFuture<R>> futures = new ArrayList<>(requests.size());
+        Map<Object, CompletableFuture<R>> coalesced = new HashMap<>();
+        for (T request : requests) {
+            Object coalesceKey = options.coalesceKey != null ? options.coalesceKey.apply(request) : null;
+            if (coalesceKey == null) {
+                futures.add(submit(request, call, limit, options.timeout));
+            } else {
+                futures.add(coalesced.computeIfAbsent(coalesceKey, key -> submit(request, call, limit, options.timeout)));
+            }
+        }
+
+        return CompletableFuture.allOf(futures.stream().map(future -> future.handle((value, error) -> null)).toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<Outcome<R>> outcomes = new ArrayList<>(futures.size());
+                    for (CompletableFuture<R> future : futures) {
+                        outcomes.add(future.handle(Outcome::of).join());
+                    }
+                    return new BatchResult<>(outcomes);
+                });
+    }
+
+    private static <T, R> CompletableFuture<R> submit(T request, Call<? super T, ? extends R> call, Semaphore limit, Duration timeout) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                limit.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            try {
+                // Thời gian chờ tính từ lúc lời gọi bắt đầu chạy, không tính thời gian chờ lượt.
+                if (timeout != null) {
+                    Thread worker = Thread.currentThread();
+                    result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((value, error) -> {
+                        if (error instanceof TimeoutException) {
+                            worker.interrupt();
+                        }
+                    });
+                }
+                result.complete(call.call(request));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                limit.release();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Lời gọi cho một yêu cầu.
+     *
+     * @param <T> Loại yêu cầu.
+     * @param <R> Loại kết quả.
+     */
+    @FunctionalInterface
+    public interface Call<T, R> {
+        R call(T request) throws Exception;
+    }
+
+    /**
+     * Tùy chọn của một lô.
+     *
+     * @param <T> Loại yêu cầu.
+     */
+    public static final class Options<T> {
+
+        private Duration timeout;
+        private Function<? super T, ?> coalesceKey;
+
+        public static <T> Options<T> defaults() {
+            return new Options<>();
+        }
+
+        /**
+         * Thời gian tối đa của mỗi lời gọi, tính từ lúc lời gọi bắt đầu chạy. Quá thời gian, luồng của lời gọi bị
+         * ngắt và kết quả là {@link TimeoutException}. Mặc định chỉ áp dụng thời gian chờ của client HTTP.
+         */
+        public Options<T> timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Gộp các yêu cầu có cùng khóa trong lô thành một lời gọi, lời gọi của yêu cầu đầu tiên được dùng. Khóa null
+         * nghĩa là không gộp.
+         */
+        public Options<T> coalesceBy(Function<? super T, ?> coalesceKey) {
+            this.coalesceKey = coalesceKey;
+            return this;
+        }
+    }
+
+    /**
+     * Kết quả của một lời gọi: giá trị hoặc lỗi.
+     *
+     * @param value Giá trị trả về, null khi lỗi.
+     * @param error Lỗi, null khi thành công.
+     * @param <R>   Loại kết quả.
+     */
+    public record Outcome<R>(R value, Throwable error) {
+
+        private static <R> Outcome<R> of(R value, Throwable error) {
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            return new Outcome<>(error == null ? value : null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Kết quả của một lô, theo thứ tự đầu vào.
+     *
+     * @param <R> Loại kết quả.
+     */
+    public static final class BatchResult<R> {
+
+        private final List<Outcome<R>> outcomes;
+
+        private BatchResult(List<Outcome<R>> outcomes) {
+            this.outcomes = Collections.unmodifiableList(outcomes);
+        }
+
+        public List<Outcome<R>> outcomes() {
+            return outcomes;
+        }
+
+        /**
+         * Các giá trị theo thứ tự đầu vào, null ở vị trí lời gọi lỗi.
+         */
+        public List<R> values() {
+            List<R> values = new ArrayList<>(outcomes.size());
+            outcomes.forEach(outcome -> values.add(outcome.value()));
+            return values;
+        }
+
+        /**
+         * Các lỗi theo vị trí đầu vào.
+         */
+        public Map<Integer, Throwable> failures() {
+            Map<Integer, Throwable> failures = new LinkedHashMap<>();
+            for (int i = 0; i < outcomes.size(); i++) {
+                if (!outcomes.get(i).isSuccess()) {
+                    failures.put(i, outcomes.get(i).error());
+                }
+            }
+            return failures;
+        }
+
+        public boolean isAllSucceeded() {
+            return outcomes.stream().allMatch(Outcome::isSuccess);
+        }
+    }
+
+    private record TemplateKey(Class<?> templateType, String baseUrl) {
+    }
+}
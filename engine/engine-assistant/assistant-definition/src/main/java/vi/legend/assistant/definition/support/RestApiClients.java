@@ -0,0 +1,146 @@
+package vi.legend.assistant.definition.support;
+
+import cn.zhxu.okhttps.HTTP;
+import cn.zhxu.okhttps.MsgConvertor;
+import cn.zhxu.okhttps.jackson.JacksonMsgConvertor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các client HTTP dùng chung cho {@link RestApiTemplate}.
+ * <p>
+ * Mỗi tổ hợp (loại template, baseUrl, thời gian chờ, bộ chuyển đổi, cấu hình bộ nhớ đệm phản hồi, chính sách gọi) chỉ
+ * tạo một {@link HTTP}. Tất cả client dùng chung
+ * một {@link ConnectionPool} (giữ kết nối keep-alive) và một {@link Dispatcher}, nên các lời gọi tới cùng một máy chủ
+ * tái sử dụng kết nối thay vì bắt tay TCP/TLS lại. HTTP/2 được OkHttp tự thương lượng qua ALPN khi máy chủ hỗ trợ.
+ */
+public final class RestApiClients {
+
+    private static final Logger log = LoggerFactory.getLogger(RestApiClients.class);
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int MAX_IDLE_CONNECTIONS = 32;
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(5);
+    private static final int MAX_REQUESTS = 256;
+    private static final int MAX_REQUESTS_PER_HOST = 32;
+
+    private static final MsgConvertor JACKSON_MSG_CONVERTOR = new JacksonMsgConvertor();
+    private static final ConnectionPool CONNECTION_POOL = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE.toMillis(), TimeUnit.MILLISECONDS);
+    private static final Dispatcher DISPATCHER = createDispatcher();
+    private static final Map<ClientKey, HTTP> CLIENTS = new ConcurrentHashMap<>();
+
+    private RestApiClients() {
+    }
+
+    private static Dispatcher createDispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+        return dispatcher;
+    }
+
+    /**
+     * Bộ chuyển đổi Jackson dùng chung, an toàn khi dùng đồng thời.
+     *
+     * @return {@link JacksonMsgConvertor} dùng chung.
+     */
+    public static MsgConvertor jackson() {
+        return JACKSON_MSG_CONVERTOR;
+    }
+
+    /**
+     * Lấy client dùng chung của template, tạo mới ở lần gọi đầu tiên.
+     * <p>
+     * {@link RestApiTemplate#getMsgConvertor()} là một phần của khóa và được so sánh bằng {@code equals}, vì vậy template
+     * phải trả về cùng một thể hiện ở mọi lần gọi, nếu không mỗi lần gọi sẽ tạo một client mới. Cấu hình bộ nhớ đệm
+     * phản hồi và {@link RestApiTemplate#getPolicy()} cũng thuộc khóa, được so sánh theo giá trị.
+     *
+     * @param template Template cần client.
+     * @return Client HTTP dùng chung.
+     */
+    public static HTTP http(RestApiTemplate template) {
+        ClientKey key = new ClientKey(template.getClass(), template.getBaseUrl(), template.getConnectTimeout(),
+                template.getReadTimeout(), template.getWriteTimeout(), template.getMsgConvertor(),
+                template.getResponseCacheMaxWeight(), template.getResponseCacheCredentialHeaders(), template.getPolicy());
+        HTTP http = CLIENTS.get(key);
+        // Khóa được lưu là bản sao, để thay đổi sau này trên cấu hình của template không làm hỏng khóa.
+        return http != null ? http : CLIENTS.computeIfAbsent(key.snapshot(), RestApiClients::create);
+    }
+
+    private static HTTP create(ClientKey key) {
+        log.debug("[Herodotus] |- Tạo client HTTP dùng chung cho [{}].", key.baseUrl());
+        RestApiResponseCache responseCache = key.responseCacheMaxWeight() > 0 ?
+                new RestApiResponseCache(key.responseCacheMaxWeight(), key.responseCacheCredentialHeaders()) : null;
+        RestApiPolicyInterceptor policy = key.policy() != null ? new RestApiPolicyInterceptor(key.policy()) : null;
+        HTTP http = HTTP.builder()
+                .baseUrl(key.baseUrl())
+                .addMsgConvertor(key.msgConvertor())
+                .config(builder -> {
+                    builder.connectionPool(CONNECTION_POOL)
+                            .dispatcher(DISPATCHER)
+                            .connectTimeout(key.connectTimeout())
+                            .readTimeout(key.readTimeout())
+                            .writeTimeout(key.writeTimeout())
+                            .retryOnConnectionFailure(true);
+                    if (responseCache != null) {
+                        builder.addInterceptor(responseCache);
+                    }
+                    // Sau bộ nhớ đệm: phản hồi có sẵn trong bộ nhớ không bị tính vào thời hạn và ngân sách thử lại.
+                    if (policy != null) {
+                        builder.addInterceptor(policy);
+                    }
+                })
+                .build();
+        if (responseCache != null) {
+            responseCache.bind(http);
+        }
+        if (policy != null) {
+            policy.bind(http);
+        }
+        return http;
+    }
+
+    /**
+     * Lấy số liệu hiện tại của các client dùng chung.
+     *
+     * @return Số liệu client và kết nối.
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(CLIENTS.size(), CONNECTION_POOL.connectionCount(), CONNECTION_POOL.idleConnectionCount(),
+                DISPATCHER.runningCallsCount(), DISPATCHER.queuedCallsCount());
+    }
+
+    /**
+     * Số liệu của các client dùng chung.
+     *
+     * @param clients         Số client đã tạo.
+     * @param connections     Số kết nối đang mở.
+     * @param idleConnections Số kết nối nhàn rỗi đang được giữ.
+     * @param runningCalls    Số lời gọi bất đồng bộ đang chạy.
+     * @param queuedCalls     Số lời gọi bất đồng bộ đang xếp hàng.
+     */
+    public record Statistics(int clients, int connections, int idleConnections, int runningCalls, int queuedCalls) {
+    }
+
+    private record ClientKey(Class<?> templateType, String baseUrl, Duration connectTimeout, Duration readTimeout,
+                             Duration writeTimeout, MsgConvertor msgConvertor, long responseCacheMaxWeight,
+                             Set<String> responseCacheCredentialHeaders, RestApiPolicy policy) {
+
+        private ClientKey snapshot() {
+            return new ClientKey(templateType, baseUrl, connectTimeout, readTimeout, writeTimeout, msgConvertor, responseCacheMaxWeight,
+                    responseCacheCredentialHeaders != null ? Set.copyOf(responseCacheCredentialHeaders) : null,
+                    policy != null ? policy.copy() : null);
+        }
+    }
+}
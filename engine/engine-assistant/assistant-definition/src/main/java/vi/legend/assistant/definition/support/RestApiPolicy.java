@@ -0,0 +1,179 @@
+package vi.legend.assistant.definition.support;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Chính sách gọi của một {@link RestApiTemplate}: thời hạn tổng, thử lại, gửi yêu cầu dự phòng (hedging) và ngân
+ * sách thử lại. Xem {@link RestApiPolicyInterceptor}.
+ * <p>
+ * Thử lại và yêu cầu dự phòng chỉ áp dụng cho các phương thức lũy đẳng trong {@link #getRetryableMethods()}.
+ * <p>
+ * Chính sách là một phần của khóa client dùng chung trong {@link RestApiClients} và được so sánh theo giá trị. Client
+ * giữ bản sao của chính sách tại lúc tạo, thay đổi sau đó không có tác dụng với client đã tạo.
+ */
+public class RestApiPolicy {
+
+    private Duration deadline; // Thời hạn tổng cho mọi lần thử, null là không giới hạn.
+    private int maxAttempts = 3; // Số lần thử tối đa, 1 là không thử lại.
+    private Duration initialBackoff = Duration.ofMillis(50); // Thời gian chờ trước lần thử lại đầu tiên.
+    private Duration maxBackoff = Duration.ofSeconds(1); // Thời gian chờ tối đa giữa hai lần thử.
+    private Set<String> retryableMethods = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE"); // Các phương thức lũy đẳng.
+    private Set<Integer> retryableStatuses = Set.of(502, 503, 504); // Các mã trạng thái được thử lại.
+    private double hedgePercentile = 0; // Gửi yêu cầu dự phòng khi lần thử chậm hơn phân vị này, 0 là tắt.
+    private int hedgeMinSamples = 100; // Số mẫu độ trễ tối thiểu trước khi bật yêu cầu dự phòng.
+    private double retryBudgetRatio = 0.1; // Tỷ lệ thử lại và yêu cầu dự phòng tối đa so với số yêu cầu.
+    private int retryBudgetMinPerSecond = 10; // Số lần thử lại luôn được phép mỗi giây, kể cả khi lưu lượng thấp.
+
+    public static RestApiPolicy defaults() {
+        return new RestApiPolicy();
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public RestApiPolicy setDeadline(Duration deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public RestApiPolicy setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public RestApiPolicy setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+        return this;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public RestApiPolicy setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    public Set<String> getRetryableMethods() {
+        return retryableMethods;
+    }
+
+    public RestApiPolicy setRetryableMethods(Set<String> retryableMethods) {
+        this.retryableMethods = retryableMethods;
+        return this;
+    }
+
+    public Set<Integer> getRetryableStatuses() {
+        return retryableStatuses;
+    }
+
+    public RestApiPolicy setRetryableStatuses(Set<Integer> retryableStatuses) {
+        this.retryableStatuses = retryableStatuses;
+        return this;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public RestApiPolicy setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+        return this;
+    }
+
+    public int getHedgeMinSamples() {
+        return hedgeMinSamples;
+    }
+
+    public RestApiPolicy setHedgeMinSamples(int hedgeMinSamples) {
+        this.hedgeMinSamples = hedgeMinSamples;
+        return this;
+    }
+
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    public RestApiPolicy setRetryBudgetRatio(double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+        return this;
+    }
+
+    public int getRetryBudgetMinPerSecond() {
+        return retryBudgetMinPerSecond;
+    }
+
+    public RestApiPolicy setRetryBudgetMinPerSecond(int retryBudgetMinPerSecond) {
+        this.retryBudgetMinPerSecond = retryBudgetMinPerSecond;
+        return this;
+    }
+
+    /**
+     * Bản sao dùng làm khóa và cấu hình của client, không bị ảnh hưởng khi chính sách gốc thay đổi.
+     */
+    RestApiPolicy copy() {
+        return new RestApiPolicy()
+                .setDeadline(deadline)
+                .setMaxAttempts(maxAttempts)
+                .setInitialBackoff(initialBackoff)
+                .setMaxBackoff(maxBackoff)
+                .setRetryableMethods(retryableMethods != null ? Set.copyOf(retryableMethods) : null)
+                .setRetryableStatuses(retryableStatuses != null ? Set.copyOf(retryableStatuses) : null)
+                .setHedgePercentile(hedgePercentile)
+                .setHedgeMinSamples(hedgeMinSamples)
+                .setRetryBudgetRatio(retryBudgetRatio)
+                .setRetryBudgetMinPerSecond(retryBudgetMinPerSecond);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o != null && this.getClass() == o.getClass()) {
+            RestApiPolicy that = (RestApiPolicy) o;
+            return maxAttempts == that.maxAttempts && Double.compare(hedgePercentile, that.hedgePercentile) == 0
+                    && hedgeMinSamples == that.hedgeMinSamples && Double.compare(retryBudgetRatio, that.retryBudgetRatio) == 0
+                    && retryBudgetMinPerSecond == that.retryBudgetMinPerSecond && Objects.equal(deadline, that.deadline)
+                    && Objects.equal(initialBackoff, that.initialBackoff) && Objects.equal(maxBackoff, that.maxBackoff)
+                    && Objects.equal(retryableMethods, that.retryableMethods) && Objects.equal(retryableStatuses, that.retryableStatuses);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(deadline, maxAttempts, initialBackoff, maxBackoff, retryableMethods, retryableStatuses,
+                hedgePercentile, hedgeMinSamples, retryBudgetRatio, retryBudgetMinPerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("deadline", deadline)
+                .add("maxAttempts", maxAttempts)
+                .add("initialBackoff", initialBackoff)
+                .add("maxBackoff", maxBackoff)
+                .add("retryableMethods", retryableMethods)
+                .add("retryableStatuses", retryableStatuses)
+                .add("hedgePercentile", hedgePercentile)
+                .add("hedgeMinSamples", hedgeMinSamples)
+                .add("retryBudgetRatio", retryBudgetRatio)
+                .add("retryBudgetMinPerSecond", retryBudgetMinPerSecond)
+                .toString();
+    }
+}
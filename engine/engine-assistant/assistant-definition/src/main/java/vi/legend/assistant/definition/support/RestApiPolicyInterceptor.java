@@ -0,0 +1,365 @@
+package vi.legend.assistant.definition.support;
+
+import cn.zhxu.okhttps.HTTP;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Áp dụng {@link RestApiPolicy} cho một client của {@link RestApiTemplate}, bật khi
+ * {@link RestApiTemplate#getPolicy()} khác null.
+ * <p>
+ * <ul>
+ *     <li>Thời hạn tổng được chia cho các lần thử còn lại: mỗi lần thử nhận {@code thời gian còn lại / số lần thử còn lại}.</li>
+ *     <li>Phương thức lũy đẳng được thử lại khi lỗi kết nối hoặc gặp mã trạng thái trong
+ *     {@link RestApiPolicy#getRetryableStatuses()}, chờ ngẫu nhiên (full jitter) giữa hai lần thử.</li>
+ *     <li>Khi bật {@link RestApiPolicy#getHedgePercentile()}, nếu lần thử chậm hơn phân vị độ trễ gần đây thì gửi thêm
+ *     một yêu cầu dự phòng, lấy phản hồi đến trước và hủy yêu cầu còn lại.</li>
+ *     <li>Mỗi lần thử lại hoặc yêu cầu dự phòng tiêu một token của ngân sách thử lại; mỗi yêu cầu nạp
+ *     {@link RestApiPolicy#getRetryBudgetRatio()} token. Hết ngân sách thì không thử lại, tránh khuếch đại tải khi
+ *     máy chủ đang quá tải.</li>
+ * </ul>
+ * Mỗi lần thử là một lời gọi riêng trên client đã gắn, có thời gian chờ tổng của riêng nó, được gắn tag
+ * {@link Attempt} để các interceptor phía trước (như {@link RestApiResponseCache}) không xử lý lại. Phản hồi đến sau
+ * khi lời gọi đã bỏ cuộc (hết thời gian chờ hoặc bị ngắt) được đóng ngay để không giữ kết nối.
+ */
+public class RestApiPolicyInterceptor implements Interceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RestApiPolicyInterceptor.class);
+
+    private final RestApiPolicy policy;
+    private final RetryBudget budget;
+    private final LatencyTracker latencies = new LatencyTracker(256);
+    private volatile HTTP http;
+
+    public RestApiPolicyInterceptor(RestApiPolicy policy) {
+        this.policy = policy;
+        this.budget = new RetryBudget(policy.getRetryBudgetRatio(), policy.getRetryBudgetMinPerSecond());
+    }
+
+    /**
+     * Gắn client dùng để thực hiện từng lần thử.
+     */
+    void bind(HTTP http) {
+        this.http = http;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HTTP client = http;
+        if (client == null || request.tag(Attempt.class) != null) {
+            return chain.proceed(request);
+        }
+
+        budget.deposit();
+        long deadline = policy.getDeadline() != null ? System.nanoTime() + policy.getDeadline().toNanos() : Long.MAX_VALUE;
+        boolean idempotent = policy.getRetryableMethods().contains(request.method());
+        int maxAttempts = idempotent ? Math.max(1, policy.getMaxAttempts()) : 1;
+
+        Request tagged = request.newBuilder().tag(Attempt.class, Attempt.INSTANCE).build();
+        IOException failure = null;
+        Response retryable = null;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            if (attempt > 0) {
+                if (chain.call().isCanceled() || !budget.tryAcquire()) {
+                    break;
+                }
+                if (!backoff(attempt, deadline)) {
+                    break;
+                }
+            }
+            long remaining = deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+
+            Response response;
+            try {
+                response = attempt(client, tagged, remaining == Long.MAX_VALUE ? remaining : remaining / (maxAttempts - attempt), idempotent);
+            } catch (IOException e) {
+                failure = e;
+                log.debug("[Herodotus] |- Lần thử [{}] tới [{}] thất bại: {}", attempt + 1, request.url(), e.getMessage());
+                continue;
+            }
+            if (!policy.getRetryableStatuses().contains(response.code())) {
+                closeQuietly(retryable);
+                return response;
+            }
+            closeQuietly(retryable);
+            retryable = response;
+        }
+
+        if (retryable != null) {
+            return retryable;
+        }
+        throw failure != null ? failure : new InterruptedIOException("Deadline exceeded for " + request.url());
+    }
+
+    /**
+     * Thực hiện một lần thử, gửi thêm yêu cầu dự phòng nếu lần thử chậm hơn phân vị độ trễ.
+     *
+     * @param timeoutNanos Thời gian chờ tổng của lần thử, {@link Long#MAX_VALUE} khi không có thời hạn.
+     */
+    private Response attempt(HTTP client, Request request, long timeoutNanos, boolean idempotent) throws IOException {
+        long hedgeDelay = idempotent && policy.getHedgePercentile() > 0 ?
+                latencies.percentile(policy.getHedgePercentile(), policy.getHedgeMinSamples()) : -1;
+        Race race = new Race();
+        race.add(start(client, request, timeoutNanos));
+        try {
+            if (hedgeDelay < 0 || hedgeDelay >= timeoutNanos) {
+                return race.await(timeoutNanos);
+            }
+            Response response = race.poll(hedgeDelay);
+            if (response != null) {
+                return response;
+            }
+            // Lần thử đầu chậm hơn phân vị: gửi thêm yêu cầu dự phòng nếu còn ngân sách, lấy phản hồi đến trước.
+            long remaining = timeoutNanos == Long.MAX_VALUE ? timeoutNanos : timeoutNanos - hedgeDelay;
+            if (budget.tryAcquire()) {
+                race.add(start(client, request, remaining));
+            }
+            return race.await(remaining);
+        } catch (IOException e) {
+            race.abandon();
+            throw e;
+        }
+    }
+
+    private Pending start(HTTP client, Request request, long timeoutNanos) {
+        Call call = client.request(request);
+        if (timeoutNanos != Long.MAX_VALUE) {
+            call.timeout().timeout(timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        long start = System.nanoTime();
+        Thread.ofVirtual().name("sanzee-rest-attempt").start(() -> {
+            try {
+                Response response = call.execute();
+                latencies.record(System.nanoTime() - start);
+                if (!future.complete(response)) {
+                    response.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return new Pending(call, future);
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+
+    /**
+     * Chờ ngẫu nhiên trong khoảng [0, min(maxBackoff, initialBackoff * 2^(attempt-1))], không vượt quá thời hạn.
+     *
+     * @return false nếu không còn đủ thời gian hoặc luồng bị ngắt.
+     */
+    private boolean backoff(int attempt, long deadline) {
+        long base = policy.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20);
+        long ceiling = Math.min(policy.getMaxBackoff().toNanos(), base);
+        long sleep = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling) : 0;
+        if (deadline != Long.MAX_VALUE && deadline - System.nanoTime() <= sleep) {
+            return false;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Response response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    /**
+     * Tag của các lần thử do interceptor này gửi đi.
+     */
+    enum Attempt {
+        INSTANCE
+    }
+
+    private record Pending(Call call, CompletableFuture<Response> future) {
+    }
+
+    /**
+     * Các lần thử chạy song song: phản hồi đầu tiên thắng, các lời gọi còn lại bị hủy. Chỉ thất bại khi mọi lần thử
+     * đều thất bại.
+     */
+    private static final class Race {
+
+        private final CompletableFuture<Response> first = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final List<Call> calls = new CopyOnWriteArrayList<>();
+
+        private void add(Pending attempt) {
+            pending.incrementAndGet();
+            calls.add(attempt.call());
+            attempt.future().whenComplete((response, error) -> {
+                if (error == null) {
+                    if (first.complete(response)) {
+                        cancelExcept(attempt.call());
+                    } else {
+                        response.close();
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    first.completeExceptionally(error);
+                }
+            });
+        }
+
+        /**
+         * @return Phản hồi nếu có trong khoảng chờ, null nếu chưa có.
+         */
+        private Response poll(long timeoutNanos) throws IOException {
+            try {
+                return first.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for response");
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+
+        private Response await(long timeoutNanos) throws IOException {
+            // Mỗi lời gọi tự hết hạn theo thời gian chờ của nó, phần cộng thêm chỉ để tránh chờ mãi.
+            Response response = poll(timeoutNanos == Long.MAX_VALUE ? timeoutNanos : timeoutNanos + TimeUnit.SECONDS.toNanos(1));
+            if (response == null) {
+                throw new InterruptedIOException("Attempt timed out");
+            }
+            return response;
+        }
+
+        private void cancelExcept(Call winner) {
+            calls.stream().filter(call -> call != winner).forEach(Call::cancel);
+        }
+
+        /**
+         * Bỏ cuộc: hủy mọi lời gọi và đóng phản hồi nếu có lần thử vẫn kịp thắng sau đó.
+         */
+        private void abandon() {
+            calls.forEach(Call::cancel);
+            first.thenAccept(Response::close);
+        }
+    }
+
+    /**
+     * Ngân sách thử lại dạng token: mỗi yêu cầu nạp {@code ratio} token, mỗi lần thử lại tiêu một token. Ngoài ra
+     * mỗi giây luôn có {@code minPerSecond} token để lưu lượng thấp vẫn thử lại được. Token được lưu theo phần nghìn.
+     */
+    static final class RetryBudget {
+
+        private static final long UNIT = 1000;
+
+        private final long deposit;
+        private final long minPerSecond;
+        private final long capacity;
+        private final AtomicLong tokens;
+        private final AtomicLong refilledAt = new AtomicLong(System.nanoTime());
+
+        RetryBudget(double ratio, int minPerSecond) {
+            this.deposit = Math.max(0, Math.round(ratio * UNIT));
+            this.minPerSecond = Math.max(0, minPerSecond) * UNIT;
+            this.capacity = Math.max(this.minPerSecond, 10 * UNIT) + deposit * 100;
+            this.tokens = new AtomicLong(this.minPerSecond);
+        }
+
+        void deposit() {
+            add(deposit);
+        }
+
+        boolean tryAcquire() {
+            refill();
+            long current;
+            do {
+                current = tokens.get();
+                if (current < UNIT) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - UNIT));
+            return true;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            long last = refilledAt.get();
+            long elapsed = now - last;
+            if (minPerSecond > 0 && elapsed >= TimeUnit.SECONDS.toNanos(1) && refilledAt.compareAndSet(last, now)) {
+                add(minPerSecond * Math.min(elapsed / TimeUnit.SECONDS.toNanos(1), 10));
+            }
+        }
+
+        private void add(long amount) {
+            tokens.accumulateAndGet(amount, (current, delta) -> Math.min(capacity, current + delta));
+        }
+    }
+
+    /**
+     * Độ trễ của các lần thử thành công gần đây, lưu trong bộ đệm vòng. Phân vị được tính lại sau mỗi
+     * {@link #RECOMPUTE_EVERY} mẫu để không phải sắp xếp ở mỗi yêu cầu.
+     */
+    static final class LatencyTracker {
+
+        private static final int RECOMPUTE_EVERY = 16;
+
+        private final long[] samples;
+        private final AtomicLong count = new AtomicLong();
+        private volatile double cachedPercentile = -1;
+        private volatile long cachedValue = -1;
+        private volatile long cachedAt = -1;
+
+        LatencyTracker(int size) {
+            this.samples = new long[size];
+        }
+
+        void record(long nanos) {
+            long index = count.getAndIncrement();
+            samples[(int) (index % samples.length)] = nanos;
+        }
+
+        /**
+         * @return Độ trễ (nano giây) ở phân vị yêu cầu, -1 nếu chưa đủ mẫu.
+         */
+        long percentile(double percentile, int minSamples) {
+            long total = count.get();
+            if (total < Math.max(1, minSamples)) {
+                return -1;
+            }
+            if (percentile == cachedPercentile && total - cachedAt < RECOMPUTE_EVERY) {
+                return cachedValue;
+            }
+            long[] copy = Arrays.copyOf(samples, (int) Math.min(total, samples.length));
+            Arrays.sort(copy);
+            long value = copy[(int) Math.max(0, Math.min(copy.length - 1, Math.ceil(percentile * copy.length) - 1))];
+            cachedValue = value;
+            cachedPercentile = percentile;
+            cachedAt = total;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package vi.legend.assistant.definition.support;
+
+import cn.zhxu.okhttps.HTTP;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bộ nhớ đệm phản hồi HTTP trong bộ nhớ cho một client của {@link RestApiTemplate}, bật khi
+ * {@link RestApiTemplate#getResponseCacheMaxWeight()} lớn hơn 0.
+ * <p>
+ * Chỉ lưu phản hồi 200 của yêu cầu GET, theo {@code Cache-Control} ({@code max-age}, {@code no-store},
+ * {@code no-cache}, {@code stale-while-revalidate}), {@code Expires}, {@code ETag} và {@code Last-Modified}:
+ * <ul>
+ *     <li>Còn tươi: trả ngay từ bộ nhớ, không gọi mạng.</li>
+ *     <li>Đã cũ nhưng còn trong khoảng {@code stale-while-revalidate}: trả bản cũ và xác thực lại ở nền.</li>
+ *     <li>Đã cũ và có ETag/Last-Modified: gửi yêu cầu có điều kiện, 304 thì dùng lại nội dung đã lưu.</li>
+ * </ul>
+ * Khóa của bộ nhớ đệm gồm URL và các header {@code Authorization}, {@code Accept}. Các header được phản hồi liệt kê
+ * trong {@code Vary} được lưu cùng mục và phải khớp với yêu cầu mới được dùng lại. Yêu cầu mang {@code Cookie} hoặc
+ * một header xác thực khác (xem {@link #DEFAULT_CREDENTIAL_HEADERS}) không đi qua bộ nhớ đệm, vì thông tin xác thực
+ * đó không nằm trong khóa. Tổng kích thước được giới hạn theo trọng số (byte).
+ */
+public class RestApiResponseCache implements Interceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RestApiResponseCache.class);
+
+    /**
+     * Các header xác thực mặc định khiến yêu cầu không đi qua bộ nhớ đệm.
+     */
+    public static final Set<String> DEFAULT_CREDENTIAL_HEADERS = Set.of("Cookie", "X-Api-Key", "Api-Key", "X-Auth-Token",
+            "X-Signature", "Signature");
+
+    private final Cache<String, Entry> entries;
+    private final long maxEntryWeight;
+    private final Set<String> credentialHeaders;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private volatile HTTP http;
+
+    /**
+     * Tạo bộ nhớ đệm.
+     *
+     * @param maxWeight Tổng số byte tối đa của nội dung và header được lưu.
+     */
+    public RestApiResponseCache(long maxWeight) {
+        this(maxWeight, DEFAULT_CREDENTIAL_HEADERS);
+    }
+
+    /**
+     * Tạo bộ nhớ đệm.
+     *
+     * @param maxWeight         Tổng số byte tối đa của nội dung và header được lưu.
+     * @param credentialHeaders Các header xác thực, yêu cầu có một trong các header này không dùng bộ nhớ đệm.
+     */
+    public RestApiResponseCache(long maxWeight, Set<String> credentialHeaders) {
+        this.credentialHeaders = credentialHeaders != null ? Set.copyOf(credentialHeaders) : Set.of();
+        this.entries = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        // Một phản hồi không được chiếm quá 1/8 bộ nhớ đệm.
+        this.maxEntryWeight = Math.max(1, maxWeight / 8);
+    }
+
+    /**
+     * Gắn client dùng để xác thực lại ở nền.
+     */
+    void bind(HTTP http) {
+        this.http = http;
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        // Các lần thử của RestApiPolicyInterceptor đã đi qua bộ nhớ đệm ở lời gọi gốc.
+        if (!"GET".equals(request.method()) || hasCredentials(request)
+                || request.tag(RestApiPolicyInterceptor.Attempt.class) != null) {
+            return chain.proceed(request);
+        }
+
+        String key = key(request);
+        boolean background = request.tag(Revalidation.class) != null;
+        Entry entry = background ? entries.getIfPresent(key) : lookup(request, key);
+        if (entry != null && !entry.matchesVary(request)) {
+            entry = null;
+        }
+        if (!background && entry != null) {
+            long now = System.currentTimeMillis();
+            if (now < entry.freshUntil()) {
+                return entry.toResponse(request);
+            }
+            if (now < entry.staleUntil() && revalidateInBackground(request, key)) {
+                return entry.toResponse(request);
+            }
+        }
+
+        try {
+            return exchange(chain, request, key, entry);
+        } finally {
+            if (background) {
+                revalidating.remove(key);
+            }
+        }
+    }
+
+    private Entry lookup(Request request, String key) {
+        String cacheControl = request.header("Cache-Control");
+        if (cacheControl != null && (contains(cacheControl, "no-cache") || contains(cacheControl, "no-store"))) {
+            return null;
+        }
+        return entries.getIfPresent(key);
+    }
+
+    private Response exchange(Chain chain, Request request, String key, Entry entry) throws IOException {
+        if (entry == null || !entry.hasValidator()) {
+            return store(key, request, chain.proceed(request));
+        }
+
+        Request.Builder conditional = request.newBuilder();
+        if (entry.etag() != null) {
+            conditional.header("If-None-Match", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            conditional.header("If-Modified-Since", entry.lastModified());
+        }
+        Response response = chain.proceed(conditional.build());
+        if (response.code() != 304) {
+            return store(key, request, response);
+        }
+
+        response.close();
+        Entry refreshed = entry.refresh(response.headers(), System.currentTimeMillis());
+        entries.put(key, refreshed);
+        return refreshed.toResponse(request);
+    }
+
+    private Response store(String key, Request request, Response response) throws IOException {
+        if (response.code() != 200) {
+            return response;
+        }
+        String cacheControl = response.header("Cache-Control", "");
+        if (contains(cacheControl, "no-store") || "*".equals(response.header("Vary"))) {
+            entries.invalidate(key);
+            return response;
+        }
+
+        long now = System.currentTimeMillis();
+        long freshness = freshness(response, cacheControl);
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (freshness <= 0 && etag == null && lastModified == null) {
+            return response;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null || body.contentLength() > maxEntryWeight) {
+            return response;
+        }
+        // Đọc trước mà không tiêu thụ nội dung, phản hồi vẫn được trả nguyên vẹn cho người gọi.
+        byte[] content = response.peekBody(maxEntryWeight + 1).bytes();
+        if (content.length > maxEntryWeight) {
+            return response;
+        }
+
+        long swr = seconds(cacheControl, "stale-while-revalidate") * 1000;
+        long freshUntil = now + freshness;
+        entries.put(key, new Entry(response.protocol(), response.message(), response.headers(), body.contentType(), content,
+                freshUntil, contains(cacheControl, "must-revalidate") ? freshUntil : freshUntil + swr, etag, lastModified,
+                varyValues(response, request)));
+        return response;
+    }
+
+    /**
+     * Gửi yêu cầu xác thực lại ở nền, mỗi khóa chỉ một yêu cầu tại một thời điểm.
+     *
+     * @return true nếu đã (hoặc đang) xác thực lại, có thể trả bản cũ.
+     */
+    private boolean revalidateInBackground(Request request, String key) {
+        HTTP client = http;
+        if (client == null) {
+            return false;
+        }
+        if (!revalidating.add(key)) {
+            return true;
+        }
+        Request tagged = request.newBuilder().tag(Revalidation.class, Revalidation.INSTANCE).build();
+        client.request(tagged).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                revalidating.remove(key);
+                log.debug("[Herodotus] |- Không thể xác thực lại [{}]: {}", request.url(), e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+            }
+        });
+        return true;
+    }
+
+    private static long freshness(Response response, String cacheControl) {
+        if (contains(cacheControl, "no-cache")) {
+            return 0;
+        }
+        long maxAge = seconds(cacheControl, "max-age");
+        long age = parseLong(response.header("Age"));
+        if (maxAge > 0) {
+            return Math.max(0, maxAge - age) * 1000;
+        }
+        Date expires = response.headers().getDate("Expires");
+        if (expires != null) {
+            Date date = response.headers().getDate("Date");
+            long served = date != null ? date.getTime() : response.receivedResponseAtMillis();
+            return Math.max(0, expires.getTime() - served);
+        }
+        return 0;
+    }
+
+    private boolean hasCredentials(Request request) {
+        for (String name : credentialHeaders) {
+            if (request.header(name) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Giá trị trong yêu cầu của các header được liệt kê trong {@code Vary} của phản hồi.
+     */
+    private static Map<String, String> varyValues(Response response, Request request) {
+        Map<String, String> values = new HashMap<>();
+        for (String vary : response.headers("Vary")) {
+            for (String name : vary.split(",")) {
+                String trimmed = name.trim().toLowerCase(Locale.ROOT);
+                if (!trimmed.isEmpty()) {
+                    values.put(trimmed, StringUtils.defaultString(request.header(trimmed)));
+                }
+            }
+        }
+        return values.isEmpty() ? Map.of() : Map.copyOf(values);
+    }
+
+    private static boolean contains(String cacheControl, String directive) {
+        return StringUtils.containsIgnoreCase(cacheControl, directive);
+    }
+
+    private static long seconds(String cacheControl, String directive) {
+        String lower = cacheControl.toLowerCase(Locale.ROOT);
+        int index = lower.indexOf(directive + "=");
+        if (index < 0) {
+            return 0;
+        }
+        int start = index + directive.length() + 1;
+        int end = start;
+        while (end < lower.length() && Character.isDigit(lower.charAt(end))) {
+            end++;
+        }
+        return parseLong(lower.substring(start, end));
+    }
+
+    private static long parseLong(String value) {
+        if (StringUtils.isBlank(value)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String key(Request request) {
+        return request.url() + "\n" + StringUtils.defaultString(request.header("Authorization")) + "\n"
+                + StringUtils.defaultString(request.header("Accept"));
+    }
+
+    private enum Revalidation {
+        INSTANCE
+    }
+
+    private record Entry(Protocol protocol, String message, Headers headers, MediaType contentType, byte[] content,
+                         long freshUntil, long staleUntil, String etag, String lastModified, Map<String, String> vary) {
+
+        private int weight() {
+            return (int) Math.min(Integer.MAX_VALUE, content.length + headers.byteCount());
+        }
+
+        private boolean matchesVary(Request request) {
+            for (Map.Entry<String, String> header : vary.entrySet()) {
+                if (!header.getValue().equals(StringUtils.defaultString(request.header(header.getKey())))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasValidator() {
+            return etag != null || lastModified != null;
+        }
+
+        /**
+         * Cập nhật header và thời gian tươi theo phản hồi 304.
+         */
+        private Entry refresh(Headers notModified, long now) {
+            Headers.Builder merged = headers.newBuilder();
+            for (String name : notModified.names()) {
+                if (!"Content-Length".equalsIgnoreCase(name) && !"Content-Encoding".equalsIgnoreCase(name)
+                        && !"Transfer-Encoding".equalsIgnoreCase(name)) {
+                    merged.set(name, notModified.get(name));
+                }
+            }
+            Headers updated = merged.build();
+            String cacheControl = StringUtils.defaultString(updated.get("Cache-Control"));
+            long maxAge = contains(cacheControl, "no-cache") ? 0 : seconds(cacheControl, "max-age") * 1000;
+            long swr = seconds(cacheControl, "stale-while-revalidate") * 1000;
+            long fresh = now + maxAge;
+            return new Entry(protocol, message, updated, contentType, content, fresh,
+                    contains(cacheControl, "must-revalidate") ? fresh : fresh + swr,
+                    StringUtils.defaultIfEmpty(updated.get("ETag"), etag), StringUtils.defaultIfEmpty(updated.get("Last-Modified"), lastModified),
+                    vary);
+        }
+
+        private Response toResponse(Request request) {
+            long now = System.currentTimeMillis();
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(200)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(content, contentType))
+                    .sentRequestAtMillis(now)
+                    .receivedResponseAtMillis(now)
+                    .build();
+        }
+    }
+}
@@ -3,17 +3,82 @@ package vi.legend.assistant.definition.support;
 
 import cn.zhxu.okhttps.HTTP;
 import cn.zhxu.okhttps.MsgConvertor;
-import cn.zhxu.okhttps.jackson.JacksonMsgConvertor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
 
 public interface RestApiTemplate {
     String getBaseUrl();
 
+    /**
+     * Client dùng chung theo baseUrl và thời gian chờ, xem {@link RestApiClients}.
+     */
     default HTTP http() {
-        return HTTP.builder().baseUrl(this.getBaseUrl()).addMsgConvertor(this.getMsgConvertor()).build();
+        return RestApiClients.http(this);
     }
 
+    /**
+     * Bộ chuyển đổi của client, là một phần của khóa client dùng chung nên phải trả về cùng một thể hiện ở mọi lần gọi.
+     */
     default MsgConvertor getMsgConvertor() {
-        return new JacksonMsgConvertor();
+        return RestApiClients.jackson();
+    }
+
+    default Duration getConnectTimeout() {
+        return RestApiClients.DEFAULT_CONNECT_TIMEOUT;
+    }
+
+    default Duration getReadTimeout() {
+        return RestApiClients.DEFAULT_READ_TIMEOUT;
+    }
+
+    default Duration getWriteTimeout() {
+        return RestApiClients.DEFAULT_WRITE_TIMEOUT;
+    }
+
+    /**
+     * Tổng số byte tối đa của bộ nhớ đệm phản hồi, 0 để tắt, xem {@link RestApiResponseCache}.
+     */
+    default long getResponseCacheMaxWeight() {
+        return 0;
     }
-}
 
+    /**
+     * Các header xác thực không nằm trong khóa của bộ nhớ đệm phản hồi, yêu cầu mang một trong các header này không
+     * dùng bộ nhớ đệm.
+     */
+    default Set<String> getResponseCacheCredentialHeaders() {
+        return RestApiResponseCache.DEFAULT_CREDENTIAL_HEADERS;
+    }
+
+    /**
+     * Chính sách thời hạn, thử lại và yêu cầu dự phòng, null để tắt, xem {@link RestApiPolicyInterceptor}. Chính sách
+     * thuộc khóa client dùng chung: các template có chính sách khác nhau dùng client khác nhau.
+     */
+    default RestApiPolicy getPolicy() {
+        return null;
+    }
+
+    /**
+     * Số lời gọi tối đa chạy cùng lúc trong {@link #batch(Collection, RestApiBatch.Call)}.
+     */
+    default int getMaxConcurrency() {
+        return RestApiBatch.DEFAULT_MAX_CONCURRENCY;
+    }
+
+    /**
+     * Thực hiện đồng thời các lời gọi trên luồng ảo, xem {@link RestApiBatch}.
+     */
+    default <T, R> RestApiBatch.BatchResult<R> batch(Collection<? extends T> requests, RestApiBatch.Call<? super T, ? extends R> call) {
+        return RestApiBatch.execute(this, requests, call, RestApiBatch.Options.defaults());
+    }
+
+    /**
+     * Thực hiện đồng thời các lời gọi trên luồng ảo với thời gian chờ và gộp yêu cầu, xem {@link RestApiBatch}.
+     */
+    default <T, R> RestApiBatch.BatchResult<R> batch(Collection<? extends T> requests, RestApiBatch.Call<? super T, ? extends R> call,
+                                                     RestApiBatch.Options<? super T> options) {
+        return RestApiBatch.execute(this, requests, call, options);
+    }
+}
@@ -0,0 +1,141 @@
+package vi.legend.assistant.definition.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bộ dựng stack trace cho {@link vi.legend.assistant.definition.domain.Error}.
+ * <p>
+ * Stack trace được rút gọn trước khi gắn vào phản hồi:
+ * - Bỏ các frame thuộc package framework (Spring, Tomcat, Netty, reflection...), frame đầu tiên (nơi ném
+ *   ngoại lệ) luôn được giữ lại.
+ * - Giới hạn số frame theo độ sâu cấu hình, việc lọc dừng ngay khi đủ số frame.
+ * <p>
+ * Kết quả không được lưu lại: khóa chính xác phải băm và so sánh toàn bộ stack trace, tốn ngang việc lọc, còn khóa rút
+ * gọn có thể trả stack trace của một đường gọi khác.
+ * <p>
+ * Ở chế độ production, stack trace không được đưa vào phản hồi. Thay vào đó bên xử lý lỗi tạo một mã tương quan
+ * (correlation id), ghi kèm stack trace đầy đủ vào log và trả mã này cho client.
+ */
+public final class StackTraceRenderer {
+
+    private static final StackTraceElement[] EMPTY = new StackTraceElement[0];
+
+    private static volatile StackTraceRenderer instance = new StackTraceRenderer(Options.defaults());
+
+    private final Options options;
+
+    private StackTraceRenderer(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * Lấy bộ dựng stack trace đang dùng.
+     * @return StackTraceRenderer hiện tại.
+     */
+    public static StackTraceRenderer getInstance() {
+        return instance;
+    }
+
+    /**
+     * Thay cấu hình.
+     * @param options Cấu hình mới.
+     * @return StackTraceRenderer mới.
+     */
+    public static StackTraceRenderer configure(Options options) {
+        StackTraceRenderer renderer = new StackTraceRenderer(options);
+        instance = renderer;
+        return renderer;
+    }
+
+    /**
+     * Có đang ở chế độ production (không đưa stack trace vào phản hồi) hay không.
+     * @return True nếu ở chế độ production.
+     */
+    public boolean isProduction() {
+        return options.production();
+    }
+
+    /**
+     * Tạo mã tương quan để đối chiếu phản hồi với log.
+     * @return Mã tương quan dạng hex.
+     */
+    public String correlationId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(System.currentTimeMillis()) + Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+
+    /**
+     * Dựng stack trace rút gọn của ngoại lệ.
+     * @param throwable Ngoại lệ.
+     * @return Stack trace rút gọn, null ở chế độ production hoặc khi ngoại lệ không có stack trace.
+     */
+    public StackTraceElement[] render(Throwable throwable) {
+        if (throwable == null || options.production()) {
+            return null;
+        }
+
+        StackTraceElement[] frames = throwable.getStackTrace();
+        if (frames.length == 0) {
+            return null;
+        }
+
+        return filter(frames);
+    }
+
+    private StackTraceElement[] filter(StackTraceElement[] frames) {
+        int depth = options.depth() > 0 ? options.depth() : Integer.MAX_VALUE;
+        List<StackTraceElement> result = new ArrayList<>(Math.min(frames.length, depth));
+        for (int i = 0; i < frames.length && result.size() < depth; i++) {
+            if (i == 0 || !isExcluded(frames[i].getClassName())) {
+                result.add(frames[i]);
+            }
+        }
+        return result.toArray(EMPTY);
+    }
+
+    private boolean isExcluded(String className) {
+        for (String prefix : options.excludedPackages()) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cấu hình của StackTraceRenderer.
+     *
+     * @param production       Không đưa stack trace vào phản hồi, chỉ trả mã tương quan.
+     * @param depth            Số frame tối đa sau khi lọc, nhỏ hơn hoặc bằng 0 là không giới hạn.
+     * @param excludedPackages Tiền tố package của các frame framework bị bỏ qua.
+     */
+    public record Options(boolean production, int depth, List<String> excludedPackages) {
+
+        public static final int DEFAULT_DEPTH = 20;
+        public static final List<String> DEFAULT_EXCLUDED_PACKAGES = List.of(
+                "java.lang.reflect.",
+                "jdk.internal.",
+                "sun.reflect.",
+                "org.springframework.",
+                "org.apache.catalina.",
+                "org.apache.coyote.",
+                "org.apache.tomcat.",
+                "jakarta.servlet.",
+                "io.undertow.",
+                "io.netty.",
+                "reactor.",
+                "net.bytebuddy.",
+                "com.sun.proxy.",
+                "jdk.proxy");
+
+        public Options {
+            excludedPackages = excludedPackages != null ? List.copyOf(excludedPackages) : List.of();
+        }
+
+        public static Options defaults() {
+            return new Options(false, DEFAULT_DEPTH, DEFAULT_EXCLUDED_PACKAGES);
+        }
+    }
+}
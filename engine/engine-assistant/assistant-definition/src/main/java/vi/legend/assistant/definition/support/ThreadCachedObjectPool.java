@@ -0,0 +1,459 @@
+package vi.legend.assistant.definition.support;
+
+import jakarta.annotation.Nonnull;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.ObjectPool;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import vi.legend.assistant.definition.domain.Pool;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bể đối tượng không dùng khóa, thay thế cho {@link org.apache.commons.pool2.impl.GenericObjectPool} trên các
+ * đường nóng.
+ * <p>
+ * Mỗi luồng nền tảng giữ lại đối tượng nó trả về gần nhất, lần mượn sau của cùng luồng lấy lại đối tượng đó chỉ
+ * bằng một phép CAS, không chạm vào cấu trúc dùng chung nào. Các đối tượng nhàn rỗi khác nằm trong một
+ * {@link ConcurrentLinkedDeque} dùng chung (LIFO hoặc FIFO theo {@link Pool#getLifo()}). Khi hàng đợi rỗng, trước
+ * khi tạo mới hoặc chờ, luồng mượn quét toàn bộ đối tượng để lấy những đối tượng đang nằm nhàn rỗi trong bộ nhớ
+ * đệm của các luồng khác. Luồng ảo không dùng bộ nhớ đệm theo luồng vì số luồng ảo không giới hạn.
+ * <p>
+ * Đối tượng nhàn rỗi lâu hơn {@link Pool#getMinEvictableIdleDuration()} bị hủy, hoặc lâu hơn
+ * {@link Pool#getSoftMinEvictableIdleDuration()} khi số đối tượng nhàn rỗi vượt quá {@link Pool#getMinIdle()}.
+ * Không có luồng dọn dẹp riêng: việc kiểm tra được thực hiện kèm khi trả đối tượng, tối đa mỗi
+ * {@link #EVICTION_INTERVAL} một lần.
+ *
+ * @param <T> Loại đối tượng mà bể sẽ quản lý.
+ */
+public class ThreadCachedObjectPool<T> implements ObjectPool<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadCachedObjectPool.class);
+
+    /**
+     * Khoảng thời gian tối thiểu giữa hai lần kiểm tra loại bỏ đối tượng nhàn rỗi.
+     */
+    public static final Duration EVICTION_INTERVAL = Duration.ofSeconds(1);
+
+    private static final int IDLE = 0;
+    private static final int IN_USE = 1;
+    private static final int EVICTED = 2;
+
+    private final PooledObjectFactory<T> factory;
+    private final int maxTotal;
+    private volatile int maxIdle;
+    private volatile int minIdle;
+    private final boolean lifo;
+    private final boolean blockWhenExhausted;
+    private final long maxWaitNanos;
+    private final long minEvictableIdleNanos;
+    private final long softMinEvictableIdleNanos;
+
+    private final Map<IdentityKey, Slot<T>> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Slot<T>> idle = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Slot<T>> cached = new ThreadLocal<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong nextEviction = new AtomicLong(System.nanoTime());
+    private volatile boolean closed;
+
+    public ThreadCachedObjectPool(@Nonnull PooledObjectFactory<T> factory, @Nonnull Pool pool) {
+        this.factory = factory;
+        this.maxTotal = pool.getMaxTotal() < 0 ? Integer.MAX_VALUE : pool.getMaxTotal();
+        this.maxIdle = pool.getMaxIdle() < 0 ? Integer.MAX_VALUE : pool.getMaxIdle();
+        this.minIdle = Math.max(0, pool.getMinIdle());
+        this.lifo = pool.getLifo();
+        this.blockWhenExhausted = pool.getBlockWhenExhausted();
+        this.maxWaitNanos = toNanos(pool.getMaxWait());
+        this.minEvictableIdleNanos = toNanos(pool.getMinEvictableIdleDuration());
+        this.softMinEvictableIdleNanos = toNanos(pool.getSoftMinEvictableIdleDuration());
+    }
+
+    @Override
+    public T borrowObject() throws Exception {
+        assertOpen();
+
+        Slot<T> slot = acquire();
+        if (slot != null) {
+            return slot.object();
+        }
+
+        if (!blockWhenExhausted) {
+            throw new NoSuchElementException("Pool exhausted");
+        }
+
+        long deadline = maxWaitNanos < 0 ? Long.MAX_VALUE : System.nanoTime() + maxWaitNanos;
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (true) {
+                slot = acquire();
+                if (slot != null) {
+                    return slot.object();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new NoSuchElementException("Timeout waiting for idle object, maxWait: " + Duration.ofNanos(maxWaitNanos));
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                assertOpen();
+            }
+        } finally {
+            waiters.remove(current);
+            // Đánh thức người chờ kế tiếp nếu tín hiệu vừa rồi rơi vào luồng này.
+            if (idleCount.get() > 0 || total.get() < maxTotal) {
+                signal();
+            }
+        }
+    }
+
+    /**
+     * Lấy một đối tượng mà không chờ.
+     *
+     * @return Đối tượng loại T, hoặc null nếu bể đã cạn.
+     */
+    public T tryBorrowObject() throws Exception {
+        assertOpen();
+        Slot<T> slot = acquire();
+        return slot != null ? slot.object() : null;
+    }
+
+    @Override
+    public void returnObject(T object) {
+        Slot<T> slot = find(object);
+        if (slot == null || slot.state.get() != IN_USE) {
+            throw new IllegalStateException("Returned object not currently part of this pool");
+        }
+
+        try {
+            factory.passivateObject(slot.pooled);
+        } catch (Exception e) {
+            destroy(slot, DestroyMode.NORMAL);
+            signal();
+            return;
+        }
+
+        // Khi maxIdle không nhỏ hơn maxTotal thì số đối tượng nhàn rỗi không thể vượt giới hạn, bỏ qua việc kiểm tra
+        // để tránh hủy nhầm do bộ đếm lệch tạm thời.
+        if (closed || (maxIdle < maxTotal && idleCount.get() >= maxIdle)) {
+            destroy(slot, DestroyMode.NORMAL);
+            signal();
+            return;
+        }
+
+        long now = System.nanoTime();
+        slot.lastReturn = now;
+        idleCount.incrementAndGet();
+        slot.state.set(IDLE);
+        if (Thread.currentThread().isVirtual()) {
+            offer(slot);
+        } else {
+            // Đối tượng được giữ lại trong bộ nhớ đệm của luồng, đối tượng bị thay thế quay về hàng đợi dùng chung.
+            Slot<T> previous = cached.get();
+            if (previous != slot) {
+                cached.set(slot);
+                if (previous != null && previous.state.get() == IDLE) {
+                    offer(previous);
+                }
+            }
+        }
+        signal();
+        evictIfDue(now);
+    }
+
+    @Override
+    public void invalidateObject(T object) throws Exception {
+        invalidateObject(object, DestroyMode.NORMAL);
+    }
+
+    @Override
+    public void invalidateObject(T object, DestroyMode destroyMode) throws Exception {
+        Slot<T> slot = find(object);
+        if (slot == null) {
+            throw new IllegalStateException("Invalidated object not currently part of this pool");
+        }
+        if (slot.state.compareAndSet(IN_USE, EVICTED)) {
+            release(slot, destroyMode);
+            signal();
+        }
+    }
+
+    @Override
+    public void addObject() throws Exception {
+        assertOpen();
+        if (!reserve()) {
+            return;
+        }
+        Slot<T> slot = create();
+        slot.lastReturn = System.nanoTime();
+        idleCount.incrementAndGet();
+        slot.state.set(IDLE);
+        offer(slot);
+        signal();
+    }
+
+    @Override
+    public int getNumIdle() {
+        return idleCount.get();
+    }
+
+    @Override
+    public int getNumActive() {
+        return Math.max(0, total.get() - idleCount.get());
+    }
+
+    @Override
+    public void clear() {
+        for (Slot<T> slot : slots.values()) {
+            if (slot.state.compareAndSet(IDLE, EVICTED)) {
+                idleCount.decrementAndGet();
+                release(slot, DestroyMode.NORMAL);
+            }
+        }
+        Slot<T> slot;
+        while ((slot = idle.poll()) != null) {
+            slot.queued.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        clear();
+        waiters.forEach(LockSupport::unpark);
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle < 0 ? Integer.MAX_VALUE : maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = Math.max(0, minIdle);
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * Hủy các đối tượng nhàn rỗi đã quá hạn.
+     */
+    public void evict() {
+        long now = System.nanoTime();
+        for (Slot<T> slot : slots.values()) {
+            if (slot.state.get() != IDLE) {
+                continue;
+            }
+            long idleNanos = now - slot.lastReturn;
+            boolean expired = (minEvictableIdleNanos > 0 && idleNanos > minEvictableIdleNanos)
+                    || (softMinEvictableIdleNanos > 0 && idleNanos > softMinEvictableIdleNanos && idleCount.get() > minIdle);
+            if (expired && slot.state.compareAndSet(IDLE, EVICTED)) {
+                idleCount.decrementAndGet();
+                if (idle.removeFirstOccurrence(slot)) {
+                    slot.queued.set(false);
+                }
+                release(slot, DestroyMode.NORMAL);
+            }
+        }
+    }
+
+    /**
+     * Lấy một đối tượng mà không chờ: đối tượng trong bộ nhớ đệm của luồng, rồi hàng đợi dùng chung, quét các đối
+     * tượng nhàn rỗi trong bộ nhớ đệm của luồng khác, cuối cùng là tạo mới nếu chưa đạt {@link Pool#getMaxTotal()}.
+     *
+     * @return Đối tượng đã được kích hoạt, hoặc null nếu bể đã cạn.
+     */
+    private Slot<T> acquire() throws Exception {
+        Slot<T> slot = cached.get();
+        if (slot != null && slot.state.compareAndSet(IDLE, IN_USE)) {
+            idleCount.decrementAndGet();
+            if (activate(slot)) {
+                return slot;
+            }
+        }
+
+        while ((slot = idle.pollFirst()) != null) {
+            slot.queued.set(false);
+            if (slot.state.compareAndSet(IDLE, IN_USE)) {
+                idleCount.decrementAndGet();
+                if (activate(slot)) {
+                    return slot;
+                }
+            }
+        }
+
+        if (idleCount.get() > 0) {
+            for (Slot<T> candidate : slots.values()) {
+                if (candidate.state.compareAndSet(IDLE, IN_USE)) {
+                    idleCount.decrementAndGet();
+                    if (activate(candidate)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+
+        if (reserve()) {
+            slot = create();
+            slot.state.set(IN_USE);
+            if (activate(slot)) {
+                return slot;
+            }
+            throw new NoSuchElementException("Unable to activate newly created object");
+        }
+        return null;
+    }
+
+    private boolean activate(Slot<T> slot) {
+        try {
+            factory.activateObject(slot.pooled);
+            return true;
+        } catch (Exception e) {
+            log.debug("[Herodotus] |- Không thể kích hoạt đối tượng, hủy và lấy đối tượng khác.", e);
+            slot.state.set(EVICTED);
+            release(slot, DestroyMode.NORMAL);
+            return false;
+        }
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = total.get();
+            if (current >= maxTotal) {
+                return false;
+            }
+        } while (!total.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private Slot<T> create() throws Exception {
+        PooledObject<T> pooled;
+        try {
+            pooled = factory.makeObject();
+        } catch (Exception e) {
+            total.decrementAndGet();
+            signal();
+            throw e;
+        }
+        Slot<T> slot = new Slot<>(pooled);
+        slots.put(new IdentityKey(pooled.getObject()), slot);
+        return slot;
+    }
+
+    private void offer(Slot<T> slot) {
+        if (slot.queued.compareAndSet(false, true)) {
+            if (lifo) {
+                idle.offerFirst(slot);
+            } else {
+                idle.offerLast(slot);
+            }
+        }
+    }
+
+    private void destroy(Slot<T> slot, DestroyMode destroyMode) {
+        slot.state.set(EVICTED);
+        release(slot, destroyMode);
+    }
+
+    private void release(Slot<T> slot, DestroyMode destroyMode) {
+        slots.remove(new IdentityKey(slot.object()));
+        total.decrementAndGet();
+        try {
+            factory.destroyObject(slot.pooled, destroyMode);
+        } catch (Exception e) {
+            log.warn("[Herodotus] |- Không thể hủy đối tượng của bể.", e);
+        }
+    }
+
+    private Slot<T> find(T object) {
+        Slot<T> slot = cached.get();
+        if (slot != null && slot.object() == object) {
+            return slot;
+        }
+        return slots.get(new IdentityKey(object));
+    }
+
+    private void signal() {
+        Thread waiter = waiters.peek();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private void evictIfDue(long now) {
+        long due = nextEviction.get();
+        if (now - due >= 0 && nextEviction.compareAndSet(due, now + EVICTION_INTERVAL.toNanos())) {
+            evict();
+        }
+    }
+
+    private void assertOpen() {
+        if (closed) {
+            throw new IllegalStateException("Pool not open");
+        }
+    }
+
+    private static long toNanos(Duration duration) {
+        return duration == null || duration.isNegative() ? -1 : duration.toNanos();
+    }
+
+    /**
+     * Một đối tượng của bể cùng trạng thái của nó. {@code queued} đảm bảo mỗi đối tượng chỉ nằm trong hàng đợi
+     * dùng chung tối đa một lần, kể cả khi nó được mượn lại qua bộ nhớ đệm của luồng.
+     */
+    private static final class Slot<T> {
+
+        private final PooledObject<T> pooled;
+        private final AtomicInteger state = new AtomicInteger(IN_USE);
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile long lastReturn;
+
+        private Slot(PooledObject<T> pooled) {
+            this.pooled = pooled;
+        }
+
+        private T object() {
+            return pooled.getObject();
+        }
+    }
+
+    /**
+     * Khóa theo định danh đối tượng, không phụ thuộc {@code equals}/{@code hashCode} của T.
+     */
+    private record IdentityKey(Object object) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey key && key.object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
@@ -1,54 +1,88 @@
 package vi.legend.sanzee.gateway.configuration;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.core.properties.SwaggerUiConfigParameters;
 import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
+import vi.legend.sanzee.gateway.handler.OpenApiDocumentHandler;
 import vi.legend.sanzee.gateway.handler.RefreshRoutesListener;
+import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+import vi.legend.sanzee.gateway.support.CorsPolicy;
+import vi.legend.sanzee.gateway.support.OpenApiDocuments;
+
+import java.util.List;
 
 @Configuration(proxyBeanMethods = false)
 public class GatewayCorsConfiguration {
 
     private static final Logger log = LoggerFactory.getLogger(GatewayCorsConfiguration.class);
-    private static final String MAX_AGE = "18000L";
 
+    /**
+     * Answers CORS from the precompiled {@link CorsPolicy}. Preflights are completed here, before the route lookup
+     * and the rest of the filter chain.
+     */
     @Bean
-    public WebFilter corsFilter() {
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public WebFilter corsFilter(GatewaySecurityProperties gatewaySecurityProperties) {
+        GatewaySecurityProperties.Cors cors = gatewaySecurityProperties.getCors();
+        log.trace("[Sanzee Cloud] |- Bean [CORS Filter] Auto Configure.");
         return (ServerWebExchange ctx, WebFilterChain chain) -> {
             ServerHttpRequest request = ctx.getRequest();
-            if (CorsUtils.isCorsRequest(request)) {
-                HttpHeaders requestHeaders = request.getHeaders();
-                ServerHttpResponse response = ctx.getResponse();
-                HttpMethod requestMethod = requestHeaders.getAccessControlRequestMethod();
-                HttpHeaders headers = response.getHeaders();
-                headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, requestHeaders.getOrigin());
-                headers.addAll(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, requestHeaders.getAccessControlRequestHeaders());
-                if (requestMethod != null) {
-                    headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, requestMethod.name());
+            HttpHeaders requestHeaders = request.getHeaders();
+            String origin = requestHeaders.getOrigin();
+            if (origin == null || !CorsUtils.isCorsRequest(request)) {
+                return chain.filter(ctx);
+            }
+
+            CorsPolicy policy = cors.getPolicy();
+            CorsPolicy.OriginHeaders allowed = policy.lookup(origin);
+            ServerHttpResponse response = ctx.getResponse();
+            if (!CorsUtils.isPreFlightRequest(request)) {
+                if (allowed != null) {
+                    response.getHeaders().putAll(allowed.getActual());
                 }
-                headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
-                headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "*");
-                headers.add(HttpHeaders.ACCESS_CONTROL_MAX_AGE, MAX_AGE);
-                if (request.getMethod() == HttpMethod.OPTIONS) {
-                    response.setStatusCode(HttpStatus.OK);
-                    return Mono.empty();
+                return chain.filter(ctx);
+            }
+
+            if (allowed == null || !policy.isMethodAllowed(requestHeaders.getAccessControlRequestMethod())) {
+                response.setStatusCode(HttpStatus.FORBIDDEN);
+                return response.setComplete();
+            }
+            HttpHeaders headers = response.getHeaders();
+            headers.putAll(allowed.getPreflight());
+            if (policy.isAnyHeader()) {
+                List<String> requested = requestHeaders.getAccessControlRequestHeaders();
+                if (!requested.isEmpty()) {
+                    headers.setAccessControlAllowHeaders(requested);
                 }
             }
-            return chain.filter(ctx);
+            response.setStatusCode(HttpStatus.OK);
+            return response.setComplete();
         };
     }
 
@@ -59,13 +93,46 @@ public class GatewayCorsConfiguration {
         @Bean
         public RefreshRoutesListener refreshRoutesListener(RouteLocator routeLocator,
                                                            SwaggerUiConfigParameters swaggerUiConfigParameters,
-                                                           SwaggerUiConfigProperties swaggerUiConfigProperties) {
+                                                           SwaggerUiConfigProperties swaggerUiConfigProperties,
+                                                           GatewaySecurityProperties gatewaySecurityProperties,
+                                                           ObjectProvider<OpenApiDocuments> openApiDocuments) {
             RefreshRoutesListener refreshRoutesListener = new RefreshRoutesListener();
             refreshRoutesListener.setRouteLocator(routeLocator);
             refreshRoutesListener.setSwaggerUiConfigParameters(swaggerUiConfigParameters);
             refreshRoutesListener.setSwaggerUiConfigProperties(swaggerUiConfigProperties);
+            refreshRoutesListener.setRefreshDebounce(gatewaySecurityProperties.getSwagger().getRefreshDebounce());
+            refreshRoutesListener.setOpenApiDocuments(openApiDocuments.getIfAvailable());
+            refreshRoutesListener.setDocumentPath(gatewaySecurityProperties.getSwagger().getDocumentPath());
             log.trace("[Herodotus] |- Bean [Refresh Routes Listener] in AliyunScanConfiguration Auto Configure.");
             return refreshRoutesListener;
         }
     }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "sanzee-cloud.gateway.swagger", name = "aggregated", havingValue = "true", matchIfMissing = true)
+    static class GatewayOpenApiConfiguration {
+
+        @Bean
+        public OpenApiDocuments openApiDocuments(GatewaySecurityProperties gatewaySecurityProperties,
+                                                 WebClient.Builder webClientBuilder,
+                                                 ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerFunction,
+                                                 ObjectProvider<ReactiveDiscoveryClient> discoveryClient,
+                                                 ObjectProvider<ObjectMapper> objectMapper) {
+            WebClient.Builder builder = webClientBuilder.clone();
+            loadBalancerFunction.ifAvailable(builder::filter);
+            OpenApiDocuments openApiDocuments = new OpenApiDocuments(builder.build(), discoveryClient.getIfAvailable(),
+                    gatewaySecurityProperties.getSwagger(), objectMapper.getIfAvailable(ObjectMapper::new));
+            log.trace("[Sanzee Cloud] |- Bean [OpenAPI Documents] Auto Configure.");
+            return openApiDocuments;
+        }
+
+        @Bean
+        public RouterFunction<ServerResponse> openApiDocumentRouter(OpenApiDocuments openApiDocuments,
+                                                                    GatewaySecurityProperties gatewaySecurityProperties) {
+            OpenApiDocumentHandler handler = new OpenApiDocumentHandler(openApiDocuments);
+            String path = gatewaySecurityProperties.getSwagger().getDocumentPath() + "/{" + OpenApiDocumentHandler.SERVICE_VARIABLE + "}";
+            log.trace("[Sanzee Cloud] |- Bean [OpenAPI Document Router] Auto Configure.");
+            return RouterFunctions.route(RequestPredicates.GET(path), handler::handle);
+        }
+    }
 }
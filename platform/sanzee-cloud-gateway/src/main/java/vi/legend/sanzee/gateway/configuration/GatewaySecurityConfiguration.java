@@ -0,0 +1,48 @@
+package vi.legend.sanzee.gateway.configuration;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+import vi.legend.sanzee.gateway.support.jwt.JwkSetProvider;
+import vi.legend.sanzee.gateway.support.jwt.JwtTokenVerifier;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "sanzee-cloud.gateway.jwt", name = "jwk-set-uri")
+public class GatewaySecurityConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewaySecurityConfiguration.class);
+
+    private static final String LOAD_BALANCER_SCHEME = "lb://";
+
+    @Bean
+    public JwkSetProvider jwkSetProvider(GatewaySecurityProperties gatewaySecurityProperties,
+                                         WebClient.Builder webClientBuilder,
+                                         ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerFunction) {
+        GatewaySecurityProperties.Jwt jwt = gatewaySecurityProperties.getJwt();
+        String jwkSetUri = jwt.getJwkSetUri();
+
+        WebClient.Builder builder = webClientBuilder.clone();
+        if (StringUtils.startsWithIgnoreCase(jwkSetUri, LOAD_BALANCER_SCHEME)) {
+            jwkSetUri = "http://" + jwkSetUri.substring(LOAD_BALANCER_SCHEME.length());
+            loadBalancerFunction.ifAvailable(builder::filter);
+        }
+
+        JwkSetProvider jwkSetProvider = new JwkSetProvider(builder.build(), jwkSetUri, jwt);
+        log.trace("[Sanzee Cloud] |- Bean [JWK Set Provider] Auto Configure.");
+        return jwkSetProvider;
+    }
+
+    @Bean
+    public JwtTokenVerifier jwtTokenVerifier(JwkSetProvider jwkSetProvider, GatewaySecurityProperties gatewaySecurityProperties) {
+        JwtTokenVerifier jwtTokenVerifier = new JwtTokenVerifier(jwkSetProvider, gatewaySecurityProperties.getJwt());
+        log.trace("[Sanzee Cloud] |- Bean [JWT Token Verifier] Auto Configure.");
+        return jwtTokenVerifier;
+    }
+}
@@ -0,0 +1,100 @@
+package vi.legend.sanzee.gateway.filter;
+
+import jakarta.annotation.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+import vi.legend.sanzee.gateway.support.CachedBody;
+
+/**
+ * Cache the request body so later filters can inspect it and the route can still forward it.
+ * <p>
+ * The body is kept as the pooled buffers received from the connection, see {@link CachedBody}. It is
+ * released when the exchange completes, errors or is cancelled.
+ */
+@Component
+public class GlobalCacheBodyFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalCacheBodyFilter.class);
+
+    public static final String CACHED_BODY_ATTR = "sanzeeCachedBody";
+
+    @Resource
+    private GatewaySecurityProperties gatewaySecurityProperties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewaySecurityProperties.CacheBody properties = gatewaySecurityProperties.getCacheBody();
+        ServerHttpRequest request = exchange.getRequest();
+
+        if (!properties.isEnabled() || !hasBody(request) || !properties.isCacheable(request.getHeaders().getContentType())) {
+            return chain.filter(exchange);
+        }
+
+        long maxSize = properties.getMaxSize().toBytes();
+        if (request.getHeaders().getContentLength() > maxSize) {
+            return tooLarge(exchange, maxSize);
+        }
+
+        return Mono.defer(() -> {
+            CachedBody cachedBody = new CachedBody(maxSize);
+            return request.getBody()
+                    .doOnNext(cachedBody::add)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.just(Boolean.TRUE))
+                    .onErrorResume(DataBufferLimitException.class, e -> Mono.just(Boolean.FALSE))
+                    .flatMap(withinLimit -> {
+                        if (!withinLimit) {
+                            return tooLarge(exchange, maxSize);
+                        }
+                        exchange.getAttributes().put(CACHED_BODY_ATTR, cachedBody);
+                        ServerHttpRequest decorated = decorate(request, cachedBody, exchange.getResponse().bufferFactory());
+                        return chain.filter(exchange.mutate().request(decorated).build());
+                    })
+                    .doFinally(signal -> {
+                        exchange.getAttributes().remove(CACHED_BODY_ATTR);
+                        cachedBody.release();
+                    });
+        });
+    }
+
+    private boolean hasBody(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        return HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method) || HttpMethod.PATCH.equals(method);
+    }
+
+    private ServerHttpRequest decorate(ServerHttpRequest request, CachedBody cachedBody, DataBufferFactory bufferFactory) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return cachedBody.retainedSlices(bufferFactory);
+            }
+        };
+    }
+
+    private Mono<Void> tooLarge(ServerWebExchange exchange, long maxSize) {
+        log.warn("[Sanzee Cloud] |- Request body of [{}] exceeds [{}] bytes, rejected.", exchange.getRequest().getPath(), maxSize);
+        exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+        return exchange.getResponse().setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.GLOBAL_CACHE_BODY_FILTER_ORDER;
+    }
+}
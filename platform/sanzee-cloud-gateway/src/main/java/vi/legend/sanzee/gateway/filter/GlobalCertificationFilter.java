@@ -2,17 +2,25 @@ package vi.legend.sanzee.gateway.filter;
 
 import jakarta.annotation.Resource;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import vi.legend.assistant.core.json.jackson2.support.EncodedResultRegistry;
+import vi.legend.assistant.core.utils.http.HeaderUtils;
+import vi.legend.assistant.definition.constants.ErrorCodes;
+import vi.legend.assistant.definition.domain.Feedback;
 import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+import vi.legend.sanzee.gateway.support.jwt.JwtTokenVerifier;
+import vi.legend.sanzee.gateway.support.jwt.VerifiedToken;
 import vi.legend.sanzee.gateway.utils.WebFluxUtils;
 
 import java.util.List;
@@ -22,30 +30,98 @@ public class GlobalCertificationFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalCertificationFilter.class);
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Every header written by {@link #forwardPrincipal}, a client supplied value must never reach downstream.
+     */
+    private static final List<String> PRINCIPAL_HEADERS = List.of(
+            HeaderUtils.X_SANZEE_PRINCIPAL,
+            HeaderUtils.X_SANZEE_CLIENT_ID,
+            HeaderUtils.X_SANZEE_SCOPE,
+            HeaderUtils.X_SANZEE_TENANT_ID,
+            HeaderUtils.X_SANZEE_OPEN_ID,
+            HeaderUtils.X_SANZEE_TOKEN_EXPIRES_AT);
+
     @Resource
     private GatewaySecurityProperties gatewaySecurityProperties;
 
+    @Resource
+    private ObjectProvider<JwtTokenVerifier> jwtTokenVerifier;
+
+    @Resource
+    private EncodedResultRegistry encodedResultRegistry;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // 0. Principal headers are only trusted when the gateway writes them
+        ServerWebExchange cleaned = stripPrincipalHeaders(exchange);
+
         // 1. Ignore filter in white list
-        String url = exchange.getRequest().getURI().getPath();
-        List<String> whiteList = gatewaySecurityProperties.getWhiteList();
-        if (WebFluxUtils.isPathMatch(whiteList, url)) {
-            return chain.filter(exchange);
+        String url = cleaned.getRequest().getURI().getPath();
+        if (gatewaySecurityProperties.getWhiteListMatcher().matches(url)) {
+            return chain.filter(cleaned);
         }
 
         //  2. Check Bearer token
-        String token = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String token = cleaned.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (!tokenWellFormed(token)) {
             log.warn("[Sanzee Cloud] |- Token is not Well Formed!");
-//            return WebFluxUtils.
+            return reject(cleaned, ErrorCodes.UNAUTHORIZED);
         }
 
-        return chain.filter(exchange);
+        // 3. Verify signature and claims locally, then forward the principal
+        JwtTokenVerifier verifier = jwtTokenVerifier.getIfAvailable();
+        if (verifier == null) {
+            return chain.filter(cleaned);
+        }
+
+        return verifier.verify(token.substring(BEARER_PREFIX.length()).trim())
+                .map(verified -> forwardPrincipal(cleaned, verified))
+                .switchIfEmpty(Mono.defer(() -> reject(cleaned, ErrorCodes.INVALID_TOKEN).then(Mono.empty())))
+                .flatMap(chain::filter);
     }
 
     private boolean tokenWellFormed(String token) {
-        return !Strings.isBlank(token) && StringUtils.containsOnly(token, "Bearer");
+        return StringUtils.startsWithIgnoreCase(token, BEARER_PREFIX)
+                && StringUtils.isNotBlank(token.substring(BEARER_PREFIX.length()));
+    }
+
+    private ServerWebExchange stripPrincipalHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (PRINCIPAL_HEADERS.stream().noneMatch(headers::containsKey)) {
+            return exchange;
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(httpHeaders -> PRINCIPAL_HEADERS.forEach(httpHeaders::remove))
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private ServerWebExchange forwardPrincipal(ServerWebExchange exchange, VerifiedToken verified) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(httpHeaders -> {
+                    setIfPresent(httpHeaders, HeaderUtils.X_SANZEE_PRINCIPAL, verified.subject());
+                    setIfPresent(httpHeaders, HeaderUtils.X_SANZEE_CLIENT_ID, verified.clientId());
+                    setIfPresent(httpHeaders, HeaderUtils.X_SANZEE_SCOPE, verified.scope());
+                    setIfPresent(httpHeaders, HeaderUtils.X_SANZEE_TENANT_ID, verified.tenantId());
+                    setIfPresent(httpHeaders, HeaderUtils.X_SANZEE_OPEN_ID, verified.openId());
+                    httpHeaders.set(HeaderUtils.X_SANZEE_TOKEN_EXPIRES_AT, String.valueOf(verified.expiresAt()));
+                })
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private static void setIfPresent(HttpHeaders httpHeaders, String name, String value) {
+        if (StringUtils.isNotBlank(value)) {
+            httpHeaders.set(name, value);
+        }
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Feedback feedback) {
+        byte[] body = encodedResultRegistry.failure(feedback, exchange.getRequest().getPath().value(), null);
+        return WebFluxUtils.writeJsonResponse(exchange.getResponse(), HttpStatus.valueOf(feedback.getStatus()), body);
     }
 
     @Override
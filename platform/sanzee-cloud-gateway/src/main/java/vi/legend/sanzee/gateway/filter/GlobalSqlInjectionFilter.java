@@ -0,0 +1,141 @@
+package vi.legend.sanzee.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import jakarta.annotation.Resource;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import vi.legend.assistant.core.json.jackson2.support.EncodedResultRegistry;
+import vi.legend.assistant.core.utils.protect.SqlInjectionUtils;
+import vi.legend.assistant.definition.constants.ErrorCodes;
+import vi.legend.sanzee.gateway.support.CachedBody;
+import vi.legend.sanzee.gateway.utils.WebFluxUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reject requests whose query string or body looks like SQL injection.
+ * <p>
+ * JSON bodies are scanned token by token with Jackson's non-blocking parser, fed chunk by chunk from the
+ * buffers cached by {@link GlobalCacheBodyFilter}. No tree is built and the scan stops at the first hit. Field
+ * names are checked as well as string values, and a body the parser rejects is checked as a whole as plain text,
+ * so malformed JSON can't be used to skip the scan.
+ */
+@Component
+public class GlobalSqlInjectionFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalSqlInjectionFilter.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Resource
+    private EncodedResultRegistry encodedResultRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        String query = request.getURI().getRawQuery();
+        if (StringUtils.isNotBlank(query) && SqlInjectionUtils.checkForGet(query)) {
+            return reject(exchange);
+        }
+
+        CachedBody cachedBody = exchange.getAttribute(GlobalCacheBodyFilter.CACHED_BODY_ATTR);
+        if (cachedBody == null || cachedBody.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        MediaType contentType = request.getHeaders().getContentType();
+        if (MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(contentType)) {
+            if (SqlInjectionUtils.checkForGet(toString(cachedBody.byteBuffers()))) {
+                return reject(exchange);
+            }
+        } else if (isJson(contentType)) {
+            if (scanJson(cachedBody.byteBuffers())) {
+                return reject(exchange);
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null
+                && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || StringUtils.endsWith(contentType.getSubtype(), "+json"));
+    }
+
+    /**
+     * Feed the body to the async parser chunk by chunk and check every field name and string value.
+     *
+     * @return true on the first suspicious value
+     */
+    private static boolean scanJson(List<ByteBuffer> chunks) {
+        try (JsonParser parser = JSON_FACTORY.createNonBlockingByteBufferParser()) {
+            ByteBufferFeeder feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            for (ByteBuffer chunk : chunks) {
+                feeder.feedInput(chunk.duplicate());
+                if (drain(parser)) {
+                    return true;
+                }
+            }
+            feeder.endOfInput();
+            return drain(parser);
+        } catch (IOException e) {
+            // Values after the error can't be tokenized, so the whole body is checked as text.
+            log.debug("[Sanzee Cloud] |- Scan malformed JSON body as text: {}", e.getMessage());
+            return SqlInjectionUtils.checkForValue(toString(chunks));
+        }
+    }
+
+    private static boolean drain(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if ((token == JsonToken.VALUE_STRING || token == JsonToken.FIELD_NAME)
+                    && SqlInjectionUtils.checkForValue(parser.getText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String toString(List<ByteBuffer> chunks) {
+        int size = 0;
+        for (ByteBuffer chunk : chunks) {
+            size += chunk.remaining();
+        }
+        byte[] bytes = new byte[size];
+        int offset = 0;
+        for (ByteBuffer chunk : chunks) {
+            int length = chunk.remaining();
+            chunk.duplicate().get(bytes, offset, length);
+            offset += length;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        byte[] body = encodedResultRegistry.failure(ErrorCodes.SQL_INJECTION_REQUEST, exchange.getRequest().getPath().value(), null);
+        return WebFluxUtils.writeJsonResponse(exchange.getResponse(), HttpStatus.FORBIDDEN, body);
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.GLOBAL_SQL_INJECTION_FILTER_ORDER;
+    }
+}
@@ -0,0 +1,62 @@
+package vi.legend.sanzee.gateway.handler;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import vi.legend.sanzee.gateway.support.OpenApiDocuments;
+
+/**
+ * Serves the OpenAPI documents cached by {@link OpenApiDocuments}.
+ * <p>
+ * Browsers revalidate with {@code If-None-Match} and get a 304 while the document is unchanged; clients that accept
+ * gzip get the pre-compressed bytes under their own ETag; either ETag revalidates the document. Nothing is forwarded
+ * to the backend.
+ */
+public class OpenApiDocumentHandler {
+
+    public static final String SERVICE_VARIABLE = "service";
+
+    private static final String GZIP = "gzip";
+
+    private final OpenApiDocuments openApiDocuments;
+
+    public OpenApiDocumentHandler(OpenApiDocuments openApiDocuments) {
+        this.openApiDocuments = openApiDocuments;
+    }
+
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        return openApiDocuments.get(request.pathVariable(SERVICE_VARIABLE))
+                .flatMap(document -> {
+                    boolean gzip = request.headers().header(HttpHeaders.ACCEPT_ENCODING).stream()
+                            .anyMatch(value -> StringUtils.containsIgnoreCase(value, GZIP));
+                    String etag = gzip ? document.gzipEtag() : document.etag();
+
+                    boolean notModified = request.headers().header(HttpHeaders.IF_NONE_MATCH).stream()
+                            .anyMatch(value -> value.contains(document.etag()) || value.contains(document.gzipEtag()));
+                    if (notModified) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(CacheControl.noCache())
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                                .build();
+                    }
+
+                    ServerResponse.BodyBuilder builder = ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .eTag(etag)
+                            .cacheControl(CacheControl.noCache())
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    if (gzip) {
+                        builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+                    }
+                    byte[] content = gzip ? document.gzipContent() : document.content();
+                    return builder.contentLength(content.length).bodyValue(content);
+                })
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+}
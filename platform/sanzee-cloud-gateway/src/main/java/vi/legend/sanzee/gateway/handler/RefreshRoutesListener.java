@@ -1,34 +1,65 @@
 package vi.legend.sanzee.gateway.handler;
 
 import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.core.properties.AbstractSwaggerUiConfigProperties;
 import org.springdoc.core.properties.SwaggerUiConfigParameters;
 import org.springdoc.core.properties.SwaggerUiConfigProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.context.ApplicationListener;
-
-import java.util.ArrayList;
-import java.util.List;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import vi.legend.sanzee.gateway.support.OpenApiDocuments;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-public class RefreshRoutesListener implements ApplicationListener<RefreshRoutesEvent> {
+import java.util.TreeSet;
+
+/**
+ * Keeps the swagger-ui service list in sync with the gateway routes.
+ * <p>
+ * Refresh events are coalesced: the routes are only collected once no new event arrived for
+ * {@link #setRefreshDebounce(Duration) the debounce window}, a newer burst cancels a collection still in flight, and
+ * the urls are only republished when the set of services actually changed.
+ * <p>
+ * When {@link OpenApiDocuments} is set, every refresh also syncs the cached documents and the published urls point
+ * at the gateway copies under {@link #setDocumentPath(String) the document path}. The urls are published first and
+ * the documents are fetched in the background, so a slow backend never delays the next refresh; a newer sync
+ * replaces one still running.
+ */
+public class RefreshRoutesListener implements ApplicationListener<RefreshRoutesEvent>, InitializingBean, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(RefreshRoutesListener.class);
 
-    public static final String API_URI = "/v3/api-docs";
+    public static final String API_URI = OpenApiDocuments.API_URI;
+
+    public static final Duration DEFAULT_REFRESH_DEBOUNCE = Duration.ofMillis(500);
+
+    private final Sinks.Many<RefreshRoutesEvent> events = Sinks.many().unicast().onBackpressureBuffer();
+    private final Map<String, AbstractSwaggerUiConfigProperties.SwaggerUrl> swaggerUrls = new HashMap<>();
+    private final Disposable.Swap documentRefresh = Disposables.swap();
+    private Disposable subscription;
+    private Set<String> publishedServices;
 
     @Value("${spring.application.name}")
     private String self;
     private RouteLocator routeLocator;
     private SwaggerUiConfigParameters swaggerUiConfigParameters;
     private SwaggerUiConfigProperties swaggerUiConfigProperties;
+    private Duration refreshDebounce = DEFAULT_REFRESH_DEBOUNCE;
+    private OpenApiDocuments openApiDocuments;
+    private String documentPath;
 
     public void setRouteLocator(RouteLocator routeLocator) {
         this.routeLocator = routeLocator;
@@ -42,6 +73,36 @@ public class RefreshRoutesListener implements ApplicationListener<RefreshRoutesE
         this.swaggerUiConfigProperties = swaggerUiConfigProperties;
     }
 
+    public void setRefreshDebounce(Duration refreshDebounce) {
+        this.refreshDebounce = refreshDebounce;
+    }
+
+    public void setOpenApiDocuments(OpenApiDocuments openApiDocuments) {
+        this.openApiDocuments = openApiDocuments;
+    }
+
+    public void setDocumentPath(String documentPath) {
+        this.documentPath = documentPath;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Duration window = ObjectUtils.defaultIfNull(refreshDebounce, Duration.ZERO);
+        subscription = events.asFlux()
+                .sampleTimeout(event -> Mono.delay(window))
+                .switchMap(event -> collectServices())
+                .subscribe(this::onServices, error -> log.error("[Herodotus] |- Swagger urls are no longer refreshed.", error));
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        documentRefresh.dispose();
+        events.tryEmitComplete();
+    }
+
     /**
      *
      * @param event An event that triggers the refresh of the routes defined in the gateway
@@ -50,29 +111,64 @@ public class RefreshRoutesListener implements ApplicationListener<RefreshRoutesE
      */
     @Override
     public void onApplicationEvent(RefreshRoutesEvent event) {
-        List<String> routes = new ArrayList<>();
-        routeLocator.getRoutes()
-                .filter(route -> route.getUri().getHost() != null && Objects.equals(route.getUri().getScheme(), "lb") && !self.equalsIgnoreCase(route.getUri().getHost()))
-                .subscribe(route -> routes.add(route.getUri().getHost()));
+        // Events may be published from several threads at once (e.g. Nacos heartbeats), retry briefly on contention.
+        events.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
 
-        Set<AbstractSwaggerUiConfigProperties.SwaggerUrl> swaggerUrls = routes.stream().map(this::createSwaggerUrl).collect(Collectors.toSet());
+    /**
+     * Collect the load balanced services once the routes are fully resolved. A failure keeps the current urls.
+     */
+    private Mono<Set<String>> collectServices() {
+        return routeLocator.getRoutes()
+                .filter(route -> route.getUri().getHost() != null && Objects.equals(route.getUri().getScheme(), "lb") && !self.equalsIgnoreCase(route.getUri().getHost()))
+                .map(route -> route.getUri().getHost())
+                .collect(TreeSet<String>::new, Set::add)
+                .map(services -> (Set<String>) services)
+                .onErrorResume(error -> {
+                    log.warn("[Herodotus] |- Collect routes failed, keep current swagger urls. {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
 
-        if (ObjectUtils.isNotEmpty(swaggerUiConfigParameters)) {
-            log.debug("[Herodotus] |- Services is Changed, update Urls");
-            swaggerUiConfigParameters.setUrls(swaggerUrls);
-            swaggerUiConfigProperties.setUrls(swaggerUrls);
+    private void onServices(Set<String> services) {
+        if (!services.equals(publishedServices)) {
+            publish(services);
+            publishedServices = services;
         }
+        refreshDocuments(services);
     }
 
-    private AbstractSwaggerUiConfigProperties.SwaggerUrl createSwaggerUrl(String service) {
+    /**
+     * Sync the cached documents in the background, only services whose instances changed are fetched again.
+     */
+    private void refreshDocuments(Set<String> services) {
+        if (openApiDocuments != null) {
+            documentRefresh.update(openApiDocuments.refresh(services)
+                    .subscribe(null, error -> log.warn("[Herodotus] |- Refresh OpenAPI documents failed. {}", error.getMessage())));
+        }
+    }
 
-        String data = API_URI;
+    private void publish(Set<String> services) {
+        if (ObjectUtils.isEmpty(swaggerUiConfigParameters)) {
+            return;
+        }
 
-        if (StringUtils.containsIgnoreCase(service, "bpmn")) {
-            data = "/openapi.json";
+        // Unchanged services keep their url, only added services are created.
+        swaggerUrls.keySet().retainAll(services);
+        Set<AbstractSwaggerUiConfigProperties.SwaggerUrl> urls = new LinkedHashSet<>();
+        for (String service : services) {
+            urls.add(swaggerUrls.computeIfAbsent(service, this::createSwaggerUrl));
         }
 
-        String url = "/" + service.toLowerCase() + data;
+        log.debug("[Herodotus] |- Services is Changed, update Urls");
+        swaggerUiConfigParameters.setUrls(urls);
+        swaggerUiConfigProperties.setUrls(urls);
+    }
+
+    private AbstractSwaggerUiConfigProperties.SwaggerUrl createSwaggerUrl(String service) {
+
+        String url = openApiDocuments != null ? documentPath + "/" + service.toLowerCase() :
+                "/" + service.toLowerCase() + OpenApiDocuments.apiUri(service);
 
         log.debug("[Herodotus] |- Create Swagger Url - Name: {}, Location {}.", service, url);
 
@@ -2,8 +2,14 @@ package vi.legend.sanzee.gateway.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import vi.legend.sanzee.gateway.handler.RefreshRoutesListener;
+import vi.legend.sanzee.gateway.support.CorsPolicy;
+import vi.legend.sanzee.gateway.support.WhiteListPathMatcher;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -12,12 +18,394 @@ public class GatewaySecurityProperties {
 
     private List<String> whiteList;
 
+    /**
+     * Max number of distinct paths whose white list decision is memoized.
+     */
+    private int whiteListCacheSize = WhiteListPathMatcher.DEFAULT_CACHE_SIZE;
+
+    private volatile WhiteListPathMatcher whiteListMatcher = WhiteListPathMatcher.empty();
+
+    private Jwt jwt = new Jwt();
+
+    private CacheBody cacheBody = new CacheBody();
+
+    private Cors cors = new Cors();
+
+    private Swagger swagger = new Swagger();
+
     public List<String> getWhiteList() {
         return whiteList;
     }
 
     public void setWhiteList(List<String> whiteList) {
         this.whiteList = whiteList;
+        this.whiteListMatcher = new WhiteListPathMatcher(whiteList, whiteListCacheSize);
+    }
+
+    public int getWhiteListCacheSize() {
+        return whiteListCacheSize;
+    }
+
+    public void setWhiteListCacheSize(int whiteListCacheSize) {
+        this.whiteListCacheSize = whiteListCacheSize;
+        this.whiteListMatcher = new WhiteListPathMatcher(whiteList, whiteListCacheSize);
+    }
+
+    /**
+     * Matcher compiled from the current white list, rebuilt whenever the properties are rebound.
+     */
+    public WhiteListPathMatcher getWhiteListMatcher() {
+        return whiteListMatcher;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public void setJwt(Jwt jwt) {
+        this.jwt = jwt;
+    }
+
+    public CacheBody getCacheBody() {
+        return cacheBody;
+    }
+
+    public void setCacheBody(CacheBody cacheBody) {
+        this.cacheBody = cacheBody;
+    }
+
+    public Cors getCors() {
+        return cors;
+    }
+
+    public void setCors(Cors cors) {
+        this.cors = cors;
+    }
+
+    public Swagger getSwagger() {
+        return swagger;
+    }
+
+    public void setSwagger(Swagger swagger) {
+        this.swagger = swagger;
+    }
+
+    public static class Swagger implements Serializable {
+        /**
+         * Quiet period after the last route refresh event before the swagger urls are rebuilt.
+         */
+        private Duration refreshDebounce = RefreshRoutesListener.DEFAULT_REFRESH_DEBOUNCE;
+        /**
+         * Whether the gateway caches the OpenAPI documents of the services and serves them itself.
+         */
+        private boolean aggregated = true;
+        /**
+         * Path under which the cached documents are served, followed by {@code /{service}}.
+         */
+        private String documentPath = "/v3/api-docs/aggregated";
+        /**
+         * Timeout of fetching one document from a service.
+         */
+        private Duration fetchTimeout = Duration.ofSeconds(10);
+        /**
+         * Max number of documents fetched at the same time.
+         */
+        private int fetchConcurrency = 8;
+
+        public Duration getRefreshDebounce() {
+            return refreshDebounce;
+        }
+
+        public void setRefreshDebounce(Duration refreshDebounce) {
+            this.refreshDebounce = refreshDebounce;
+        }
+
+        public boolean isAggregated() {
+            return aggregated;
+        }
+
+        public void setAggregated(boolean aggregated) {
+            this.aggregated = aggregated;
+        }
+
+        public String getDocumentPath() {
+            return documentPath;
+        }
+
+        public void setDocumentPath(String documentPath) {
+            this.documentPath = documentPath;
+        }
+
+        public Duration getFetchTimeout() {
+            return fetchTimeout;
+        }
+
+        public void setFetchTimeout(Duration fetchTimeout) {
+            this.fetchTimeout = fetchTimeout;
+        }
+
+        public int getFetchConcurrency() {
+            return fetchConcurrency;
+        }
+
+        public void setFetchConcurrency(int fetchConcurrency) {
+            this.fetchConcurrency = fetchConcurrency;
+        }
+    }
+
+    public static class Cors implements Serializable {
+        /**
+         * Origins allowed to call the gateway. Supports literal origins, wildcard hosts such as
+         * {@code https://*.example.com} and {@code *} for any origin.
+         */
+        private List<String> allowedOrigins = List.of("*");
+        /**
+         * Methods allowed in preflights, {@code *} for all standard methods.
+         */
+        private List<String> allowedMethods = List.of("*");
+        /**
+         * Request headers allowed in preflights, {@code *} echoes {@code Access-Control-Request-Headers}.
+         */
+        private List<String> allowedHeaders = List.of("*");
+        /**
+         * Response headers exposed to the browser.
+         */
+        private List<String> exposedHeaders = List.of("*");
+        /**
+         * Whether cookies and authorization headers are allowed. Only applies to origins listed literally or by a
+         * wildcard host, never to origins matched by {@code *}.
+         */
+        private boolean allowCredentials = false;
+        /**
+         * How long browsers may cache a preflight response.
+         */
+        private Duration maxAge = Duration.ofHours(5);
+        /**
+         * Max number of origins matched by a wildcard whose headers are memoized.
+         */
+        private int cacheSize = CorsPolicy.DEFAULT_CACHE_SIZE;
+
+        private volatile CorsPolicy policy = compile();
+
+        private CorsPolicy compile() {
+            return new CorsPolicy(allowedOrigins, allowedMethods, allowedHeaders, exposedHeaders, allowCredentials, maxAge, cacheSize);
+        }
+
+        public List<String> getAllowedOrigins() {
+            return allowedOrigins;
+        }
+
+        public void setAllowedOrigins(List<String> allowedOrigins) {
+            this.allowedOrigins = allowedOrigins;
+            this.policy = compile();
+        }
+
+        public List<String> getAllowedMethods() {
+            return allowedMethods;
+        }
+
+        public void setAllowedMethods(List<String> allowedMethods) {
+            this.allowedMethods = allowedMethods;
+            this.policy = compile();
+        }
+
+        public List<String> getAllowedHeaders() {
+            return allowedHeaders;
+        }
+
+        public void setAllowedHeaders(List<String> allowedHeaders) {
+            this.allowedHeaders = allowedHeaders;
+            this.policy = compile();
+        }
+
+        public List<String> getExposedHeaders() {
+            return exposedHeaders;
+        }
+
+        public void setExposedHeaders(List<String> exposedHeaders) {
+            this.exposedHeaders = exposedHeaders;
+            this.policy = compile();
+        }
+
+        public boolean isAllowCredentials() {
+            return allowCredentials;
+        }
+
+        public void setAllowCredentials(boolean allowCredentials) {
+            this.allowCredentials = allowCredentials;
+            this.policy = compile();
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+            this.policy = compile();
+        }
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            this.policy = compile();
+        }
+
+        /**
+         * Policy compiled from the current settings, rebuilt whenever the properties are rebound.
+         */
+        public CorsPolicy getPolicy() {
+            return policy;
+        }
+    }
+
+    public static class CacheBody implements Serializable {
+        /**
+         * Whether request bodies are cached for the filters that need to inspect them.
+         */
+        private boolean enabled = true;
+        /**
+         * Largest body that is cached, bigger requests are rejected with 413.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(1);
+        /**
+         * Content types whose body is cached, other requests are streamed untouched.
+         */
+        private List<String> contentTypes = List.of(
+                MediaType.APPLICATION_JSON_VALUE,
+                "application/*+json",
+                MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+                MediaType.TEXT_PLAIN_VALUE);
+
+        private volatile List<MediaType> mediaTypes = MediaType.parseMediaTypes(contentTypes);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public List<String> getContentTypes() {
+            return contentTypes;
+        }
+
+        public void setContentTypes(List<String> contentTypes) {
+            this.contentTypes = contentTypes;
+            this.mediaTypes = MediaType.parseMediaTypes(contentTypes);
+        }
+
+        public boolean isCacheable(MediaType contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            for (MediaType mediaType : mediaTypes) {
+                if (mediaType.includes(contentType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static class Jwt implements Serializable {
+        /**
+         * JWKS endpoint of the UAA. Supports {@code lb://service-id/path} to resolve through the load balancer.
+         * Signature verification is skipped when not set.
+         */
+        private String jwkSetUri;
+        /**
+         * Expected {@code iss} claim, not checked when empty.
+         */
+        private String issuer;
+        /**
+         * Interval of the background JWKS refresh.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        /**
+         * Minimum interval between two on-demand refreshes triggered by an unknown {@code kid}.
+         */
+        private Duration minRefreshInterval = Duration.ofSeconds(30);
+        /**
+         * Tolerated clock difference when checking {@code exp} and {@code nbf}.
+         */
+        private Duration clockSkew = Duration.ofSeconds(60);
+        /**
+         * Max number of verified tokens kept in memory.
+         */
+        private long cacheSize = 10000;
+        /**
+         * Upper bound of how long a verified token stays cached, even if its {@code exp} is later.
+         */
+        private Duration cacheTtl = Duration.ofMinutes(10);
+
+        public String getJwkSetUri() {
+            return jwkSetUri;
+        }
+
+        public void setJwkSetUri(String jwkSetUri) {
+            this.jwkSetUri = jwkSetUri;
+        }
+
+        public String getIssuer() {
+            return issuer;
+        }
+
+        public void setIssuer(String issuer) {
+            this.issuer = issuer;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getMinRefreshInterval() {
+            return minRefreshInterval;
+        }
+
+        public void setMinRefreshInterval(Duration minRefreshInterval) {
+            this.minRefreshInterval = minRefreshInterval;
+        }
+
+        public Duration getClockSkew() {
+            return clockSkew;
+        }
+
+        public void setClockSkew(Duration clockSkew) {
+            this.clockSkew = clockSkew;
+        }
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
+        public Duration getCacheTtl() {
+            return cacheTtl;
+        }
+
+        public void setCacheTtl(Duration cacheTtl) {
+            this.cacheTtl = cacheTtl;
+        }
     }
 
 //    public static class Trace implements Serializable {
@@ -0,0 +1,123 @@
+package vi.legend.sanzee.gateway.support;
+
+import io.netty.buffer.ByteBuf;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request body kept as the original (pooled) {@link DataBuffer}s.
+ * <p>
+ * Netty buffers are never copied: every reader gets retained slices that share the cached memory and carry
+ * their own read index, so the body can be read by several filters and still be forwarded downstream. Other
+ * buffer types are copied on read. The owner must call {@link #release()} once the exchange is done.
+ */
+public class CachedBody {
+
+    private final List<DataBuffer> buffers = new ArrayList<>();
+    private final long maxSize;
+    private long size;
+    private boolean released;
+
+    public CachedBody(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Take ownership of a body chunk.
+     *
+     * @throws DataBufferLimitException when the body exceeds the configured size, the chunk is released
+     */
+    public synchronized void add(DataBuffer buffer) {
+        if (released) {
+            DataBufferUtils.release(buffer);
+            return;
+        }
+
+        size += buffer.readableByteCount();
+        if (size > maxSize) {
+            DataBufferUtils.release(buffer);
+            throw new DataBufferLimitException("Request body exceeds the limit of " + maxSize + " bytes");
+        }
+        buffers.add(buffer);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Body content as {@link ByteBuffer}s, in order. Netty buffers are exposed as views, valid until
+     * {@link #release()}; other buffers are copied.
+     */
+    public synchronized List<ByteBuffer> byteBuffers() {
+        List<ByteBuffer> result = new ArrayList<>(buffers.size());
+        for (DataBuffer buffer : buffers) {
+            if (buffer instanceof NettyDataBuffer nettyDataBuffer) {
+                ByteBuf byteBuf = nettyDataBuffer.getNativeBuffer();
+                Collections.addAll(result, byteBuf.nioBuffers(byteBuf.readerIndex(), byteBuf.readableBytes()));
+            } else {
+                result.add(copy(buffer));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Replay the body. Each emitted buffer is a retained slice that the subscriber must release, which the
+     * HTTP client does once it is written.
+     */
+    public Flux<DataBuffer> retainedSlices(DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> Flux.fromIterable(snapshot()))
+                .map(buffer -> slice(buffer, bufferFactory));
+    }
+
+    private synchronized List<DataBuffer> snapshot() {
+        return released ? Collections.emptyList() : new ArrayList<>(buffers);
+    }
+
+    private static DataBuffer slice(DataBuffer buffer, DataBufferFactory bufferFactory) {
+        if (buffer instanceof NettyDataBuffer nettyDataBuffer) {
+            ByteBuf slice = nettyDataBuffer.getNativeBuffer().retainedSlice();
+            NettyDataBufferFactory factory = bufferFactory instanceof NettyDataBufferFactory nettyFactory ?
+                    nettyFactory : nettyDataBuffer.factory();
+            return factory.wrap(slice);
+        }
+
+        return bufferFactory.wrap(copy(buffer));
+    }
+
+    /**
+     * Copy of the readable bytes. A buffer may span several {@link ByteBuffer}s that are only valid while the
+     * iterator is open, so every one of them is copied before it is closed.
+     */
+    private static ByteBuffer copy(DataBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.readableByteCount());
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            iterator.forEachRemaining(byteBuffer -> copy.put(byteBuffer.duplicate()));
+        }
+        return copy.flip();
+    }
+
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        buffers.forEach(DataBufferUtils::release);
+        buffers.clear();
+    }
+}
@@ -0,0 +1,236 @@
+package vi.legend.sanzee.gateway.support;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Precompiled CORS policy.
+ * <p>
+ * Allowed origins are compiled once when the properties bind (or refresh) into:
+ * <ul>
+ *     <li>literal origins, answered by a hash lookup;</li>
+ *     <li>wildcard origins such as {@code https://*.example.com}, matched by prefix and suffix;</li>
+ *     <li>{@code *}, which allows (and echoes) any origin, but never with credentials: an origin only matched by
+ *     {@code *} is answered without {@code Access-Control-Allow-Credentials}, so a page on any site can't make
+ *     credentialed calls. Credentials need the origin listed literally or by a wildcard host.</li>
+ * </ul>
+ * The response headers of every literal origin are built up front as read-only {@link HttpHeaders}, one set for
+ * actual requests and one for preflights. Origins matched by a wildcard get their header sets built on first use and
+ * memoized in a bounded map, so a flood of unique origins can't grow the heap.
+ */
+public class CorsPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(CorsPolicy.class);
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final String ANY = "*";
+    private static final List<String> VARY = List.of(HttpHeaders.ORIGIN, HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
+            HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+    private final boolean anyOrigin;
+    private final List<OriginPattern> originPatterns = new ArrayList<>();
+    private final Map<String, OriginHeaders> exactOrigins = new HashMap<>();
+
+    private final Set<HttpMethod> allowedMethods;
+    private final String allowMethods;
+    private final boolean anyHeader;
+    private final String allowHeaders;
+    private final String exposeHeaders;
+    private final boolean allowCredentials;
+    private final String maxAge;
+
+    private final int cacheSize;
+    private final Map<String, OriginHeaders> matchedOrigins;
+
+    public CorsPolicy(List<String> allowedOrigins, List<String> allowedMethods, List<String> allowedHeaders,
+                      List<String> exposedHeaders, boolean allowCredentials, Duration maxAge, int cacheSize) {
+        this.allowedMethods = toMethods(allowedMethods);
+        this.allowMethods = this.allowedMethods.stream().map(HttpMethod::name).sorted().collect(Collectors.joining(","));
+        this.anyHeader = contains(allowedHeaders, ANY);
+        this.allowHeaders = anyHeader ? null : join(allowedHeaders);
+        this.exposeHeaders = join(exposedHeaders);
+        this.allowCredentials = allowCredentials;
+        this.maxAge = maxAge != null ? String.valueOf(maxAge.toSeconds()) : null;
+        this.cacheSize = Math.max(cacheSize, 0);
+        this.matchedOrigins = new ConcurrentHashMap<>(Math.min(this.cacheSize, DEFAULT_CACHE_SIZE));
+
+        boolean any = false;
+        if (!CollectionUtils.isEmpty(allowedOrigins)) {
+            for (String origin : allowedOrigins) {
+                if (StringUtils.isBlank(origin)) {
+                    continue;
+                }
+                String value = normalize(origin);
+                int wildcard = value.indexOf('*');
+                if (ANY.equals(value)) {
+                    any = true;
+                } else if (wildcard < 0) {
+                    // Echo the normalized form, which is how browsers send the Origin header.
+                    exactOrigins.put(value, new OriginHeaders(value, allowCredentials));
+                } else {
+                    originPatterns.add(new OriginPattern(value.substring(0, wildcard), value.substring(wildcard + 1)));
+                }
+            }
+        }
+        this.anyOrigin = any;
+        if (anyOrigin && allowCredentials) {
+            log.warn("[Sanzee Cloud] |- CORS allows any origin with credentials, origins only matched by [*] are answered without credentials. List the trusted origins instead.");
+        }
+    }
+
+    /**
+     * Look up the header sets of an origin.
+     *
+     * @param origin value of the {@code Origin} request header.
+     * @return the header sets, or null if the origin is not allowed.
+     */
+    public OriginHeaders lookup(String origin) {
+        if (StringUtils.isBlank(origin)) {
+            return null;
+        }
+
+        OriginHeaders headers = exactOrigins.get(origin);
+        if (headers != null) {
+            return headers;
+        }
+        headers = matchedOrigins.get(origin);
+        if (headers != null) {
+            return headers;
+        }
+
+        // Browsers compare Access-Control-Allow-Origin byte for byte, so an origin that only matches after
+        // normalization echoes its own spelling.
+        String value = normalize(origin);
+        boolean listed = exactOrigins.containsKey(value) || originPatterns.stream().anyMatch(pattern -> pattern.matches(value));
+        if (!listed && !anyOrigin) {
+            return null;
+        }
+
+        headers = new OriginHeaders(origin, listed && allowCredentials);
+        if (matchedOrigins.size() < cacheSize) {
+            matchedOrigins.putIfAbsent(origin, headers);
+        }
+        return headers;
+    }
+
+    public boolean isMethodAllowed(HttpMethod method) {
+        return method != null && allowedMethods.contains(method);
+    }
+
+    /**
+     * Whether any requested header is allowed, in which case preflights echo {@code Access-Control-Request-Headers}.
+     */
+    public boolean isAnyHeader() {
+        return anyHeader;
+    }
+
+    private static Set<HttpMethod> toMethods(List<String> methods) {
+        if (CollectionUtils.isEmpty(methods) || contains(methods, ANY)) {
+            return Set.of(HttpMethod.values());
+        }
+        Set<HttpMethod> result = new HashSet<>();
+        for (String method : methods) {
+            if (StringUtils.isNotBlank(method)) {
+                result.add(HttpMethod.valueOf(method.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static boolean contains(List<String> values, String value) {
+        return values != null && values.stream().anyMatch(item -> value.equals(StringUtils.trim(item)));
+    }
+
+    private static String join(List<String> values) {
+        if (CollectionUtils.isEmpty(values)) {
+            return null;
+        }
+        String joined = values.stream().filter(StringUtils::isNotBlank).map(String::trim).collect(Collectors.joining(","));
+        return joined.isEmpty() ? null : joined;
+    }
+
+    private static String normalize(String origin) {
+        return StringUtils.removeEnd(origin.trim(), "/").toLowerCase(Locale.ROOT);
+    }
+
+    private record OriginPattern(String prefix, String suffix) {
+
+        private boolean matches(String origin) {
+            if (origin.length() <= prefix.length() + suffix.length() || !origin.startsWith(prefix) || !origin.endsWith(suffix)) {
+                return false;
+            }
+            // The wildcard only stands for host labels, never for a scheme, port or path.
+            String host = origin.substring(prefix.length(), origin.length() - suffix.length());
+            return host.indexOf('/') < 0 && host.indexOf(':') < 0 && host.indexOf('@') < 0;
+        }
+    }
+
+    /**
+     * Read-only response headers of one allowed origin.
+     */
+    public final class OriginHeaders {
+
+        private final HttpHeaders actual;
+        private final HttpHeaders preflight;
+
+        private OriginHeaders(String origin, boolean credentials) {
+            HttpHeaders actual = new HttpHeaders();
+            actual.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            if (credentials) {
+                actual.set(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            if (exposeHeaders != null) {
+                actual.set(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, exposeHeaders);
+            }
+            actual.put(HttpHeaders.VARY, VARY);
+
+            HttpHeaders preflight = new HttpHeaders();
+            preflight.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            if (credentials) {
+                preflight.set(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            preflight.set(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, allowMethods);
+            if (allowHeaders != null) {
+                preflight.set(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, allowHeaders);
+            }
+            if (maxAge != null) {
+                preflight.set(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+            }
+            preflight.put(HttpHeaders.VARY, VARY);
+
+            this.actual = HttpHeaders.readOnlyHttpHeaders(actual);
+            this.preflight = HttpHeaders.readOnlyHttpHeaders(preflight);
+        }
+
+        /**
+         * Headers added to actual (non-preflight) CORS responses.
+         */
+        public HttpHeaders getActual() {
+            return actual;
+        }
+
+        /**
+         * Headers of the preflight response, without {@code Access-Control-Allow-Headers} when any header is allowed.
+         */
+        public HttpHeaders getPreflight() {
+            return preflight;
+        }
+    }
+}
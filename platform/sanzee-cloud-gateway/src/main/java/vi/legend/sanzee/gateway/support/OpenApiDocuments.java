@@ -0,0 +1,209 @@
+package vi.legend.sanzee.gateway.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OpenAPI documents of the routed services, kept in the gateway.
+ * <p>
+ * On every route refresh the documents are fetched in parallel through the load balancer, but only for services
+ * that are new or whose instance set changed since the last fetch, so browsing the documentation never reaches the
+ * backends. Each document is stored with its {@code servers} rewritten to the gateway prefix of the service, in plain
+ * and gzip form, together with an ETag. A failed fetch keeps the previous document and is retried on the next
+ * refresh.
+ */
+public class OpenApiDocuments {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenApiDocuments.class);
+
+    public static final String API_URI = "/v3/api-docs";
+    public static final String BPMN_API_URI = "/openapi.json";
+
+    private final WebClient webClient;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final GatewaySecurityProperties.Swagger swagger;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Document>> inflight = new ConcurrentHashMap<>();
+    private volatile Map<String, String> services = Collections.emptyMap();
+
+    public OpenApiDocuments(WebClient webClient, ReactiveDiscoveryClient discoveryClient,
+                            GatewaySecurityProperties.Swagger swagger, ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.discoveryClient = discoveryClient;
+        this.swagger = swagger;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Path of the spec of a service on the backend.
+     */
+    public static String apiUri(String service) {
+        return StringUtils.containsIgnoreCase(service, "bpmn") ? BPMN_API_URI : API_URI;
+    }
+
+    /**
+     * Sync the documents with the current services.
+     *
+     * @param serviceIds load balanced service ids of the routes
+     * @return completes once every changed service has been fetched (or failed)
+     */
+    public Mono<Void> refresh(Set<String> serviceIds) {
+        Map<String, String> current = serviceIds.stream()
+                .collect(Collectors.toUnmodifiableMap(OpenApiDocuments::key, serviceId -> serviceId, (first, second) -> first));
+        this.services = current;
+        documents.keySet().retainAll(current.keySet());
+
+        return Flux.fromIterable(current.values())
+                .flatMap(serviceId -> fingerprint(serviceId).flatMap(fingerprint -> {
+                    Document document = documents.get(key(serviceId));
+                    if (document != null && document.fingerprint().equals(fingerprint)) {
+                        return Mono.empty();
+                    }
+                    return load(serviceId, fingerprint);
+                }), Math.max(1, swagger.getFetchConcurrency()))
+                .then();
+    }
+
+    /**
+     * Get the document of a service, fetching it on the first request if the refresh has not done it yet.
+     *
+     * @param service service id, case-insensitive
+     * @return the document, or empty if the service is not routed or its spec is unavailable
+     */
+    public Mono<Document> get(String service) {
+        String key = key(service);
+        Document document = documents.get(key);
+        if (document != null) {
+            return Mono.just(document);
+        }
+        String serviceId = services.get(key);
+        if (serviceId == null) {
+            return Mono.empty();
+        }
+        return fingerprint(serviceId).flatMap(fingerprint -> load(serviceId, fingerprint));
+    }
+
+    /**
+     * Fetch a document, sharing the request with every concurrent caller of the same service.
+     */
+    private Mono<Document> load(String serviceId, String fingerprint) {
+        String key = key(serviceId);
+        return inflight.computeIfAbsent(key, k -> fetch(serviceId, fingerprint)
+                .doFinally(signal -> inflight.remove(k))
+                .cache());
+    }
+
+    private Mono<Document> fetch(String serviceId, String fingerprint) {
+        String uri = "http://" + serviceId + apiUri(serviceId);
+        return webClient.get().uri(uri)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .timeout(swagger.getFetchTimeout())
+                .map(body -> Document.of(rewrite(serviceId, body), fingerprint))
+                .doOnNext(document -> {
+                    // Drop a late result of a service that is no longer routed.
+                    if (services.containsKey(key(serviceId))) {
+                        documents.put(key(serviceId), document);
+                        log.debug("[Sanzee Cloud] |- OpenAPI document of [{}] cached, etag {}.", serviceId, document.etag());
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.warn("[Sanzee Cloud] |- Fetch OpenAPI document from [{}] failed: {}", uri, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Instance set of a service, empty string when it can't be resolved (then a service is only fetched once).
+     */
+    private Mono<String> fingerprint(String serviceId) {
+        if (discoveryClient == null) {
+            return Mono.just("");
+        }
+        return discoveryClient.getInstances(serviceId)
+                .map(instance -> instance.getHost() + ":" + instance.getPort() + metadataVersion(instance))
+                .sort()
+                .collect(Collectors.joining(","))
+                .onErrorReturn("");
+    }
+
+    private static String metadataVersion(ServiceInstance instance) {
+        String version = instance.getMetadata() != null ? instance.getMetadata().get("version") : null;
+        return version != null ? "@" + version : "";
+    }
+
+    /**
+     * Point {@code servers} at the gateway prefix of the service, so "Try it out" goes through the gateway.
+     */
+    private byte[] rewrite(String serviceId, byte[] body) {
+        try {
+            ObjectNode root = (ObjectNode) objectMapper.readTree(body);
+            ArrayNode servers = root.putArray("servers");
+            servers.addObject().put("url", "/" + key(serviceId)).put("description", "Gateway");
+            return objectMapper.writeValueAsBytes(root);
+        } catch (IOException | ClassCastException e) {
+            log.debug("[Sanzee Cloud] |- OpenAPI document of [{}] is kept as is: {}", serviceId, e.getMessage());
+            return body;
+        }
+    }
+
+    private static String key(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A cached document.
+     *
+     * @param content     the document
+     * @param gzipContent the document compressed with gzip
+     * @param etag        strong ETag of {@code content}, quoted
+     * @param fingerprint instance set the document was fetched from
+     */
+    public record Document(byte[] content, byte[] gzipContent, String etag, String fingerprint) {
+
+        private static Document of(byte[] content, String fingerprint) {
+            return new Document(content, gzip(content), "\"" + DigestUtils.md5DigestAsHex(content) + "\"", fingerprint);
+        }
+
+        /**
+         * Strong ETag of {@code gzipContent}. The two byte representations must not share a strong validator.
+         */
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        private static byte[] gzip(byte[] content) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+                gzip.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return output.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package vi.legend.sanzee.gateway.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled white list matcher.
+ * <p>
+ * Patterns are parsed once when the properties bind (or refresh) and split into:
+ * <ul>
+ *     <li>literal paths, answered by a hash lookup;</li>
+ *     <li>{@link PathPattern}s indexed by their first literal segment, so a request only
+ *     evaluates the patterns that can possibly match it;</li>
+ *     <li>patterns that {@link PathPatternParser} rejects (e.g. {@code **} in the middle), kept on
+ *     {@link AntPathMatcher} to preserve the old semantics.</li>
+ * </ul>
+ * Decisions are memoized per path in a bounded LRU cache, so a flood of unique URLs can't grow the heap
+ * and the hot paths stay cached when the set of requested paths shifts.
+ * <p>
+ * Paths are matched in their decoded form ({@code URI#getPath()}), the same as the previous
+ * {@code AntPathMatcher} based check.
+ */
+public class WhiteListPathMatcher {
+
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private static final WhiteListPathMatcher EMPTY = new WhiteListPathMatcher(Collections.emptyList(), 0);
+
+    private final Set<String> exactPaths = new HashSet<>();
+    private final Map<String, List<PathPattern>> indexedPatterns = new HashMap<>();
+    private final List<PathPattern> genericPatterns = new ArrayList<>();
+    private final List<String> antPatterns = new ArrayList<>();
+    private final PathMatcher antPathMatcher = new AntPathMatcher();
+
+    private final Cache<String, Boolean> decisions;
+
+    public WhiteListPathMatcher(List<String> patterns, int cacheSize) {
+        this.decisions = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(cacheSize, 0))
+                .build();
+
+        if (CollectionUtils.isEmpty(patterns)) {
+            return;
+        }
+
+        PathPatternParser parser = new PathPatternParser();
+        for (String pattern : patterns) {
+            if (StringUtils.isBlank(pattern)) {
+                continue;
+            }
+
+            String value = pattern.trim();
+            if (!antPathMatcher.isPattern(value)) {
+                exactPaths.add(value);
+                continue;
+            }
+
+            try {
+                PathPattern pathPattern = parser.parse(value);
+                String segment = firstLiteralSegment(value);
+                if (segment != null) {
+                    indexedPatterns.computeIfAbsent(segment, key -> new ArrayList<>()).add(pathPattern);
+                } else {
+                    genericPatterns.add(pathPattern);
+                }
+            } catch (PatternParseException e) {
+                antPatterns.add(value);
+            }
+        }
+    }
+
+    public static WhiteListPathMatcher empty() {
+        return EMPTY;
+    }
+
+    public boolean matches(String path) {
+        if (StringUtils.isEmpty(path)) {
+            return false;
+        }
+
+        Boolean decision = decisions.getIfPresent(path);
+        if (decision != null) {
+            return decision;
+        }
+
+        boolean result = evaluate(path);
+        decisions.put(path, result);
+        return result;
+    }
+
+    private boolean evaluate(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+
+        if (!indexedPatterns.isEmpty() || !genericPatterns.isEmpty()) {
+            PathContainer container = PathContainer.parsePath(path);
+
+            List<PathPattern> candidates = indexedPatterns.get(firstSegment(path));
+            if (candidates != null && anyMatch(candidates, container)) {
+                return true;
+            }
+
+            if (anyMatch(genericPatterns, container)) {
+                return true;
+            }
+        }
+
+        for (String pattern : antPatterns) {
+            if (antPathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean anyMatch(List<PathPattern> patterns, PathContainer container) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * First segment of the pattern if it contains no wildcard or variable, otherwise {@code null}.
+     */
+    private static String firstLiteralSegment(String pattern) {
+        String segment = firstSegment(pattern);
+        if (StringUtils.isEmpty(segment) || StringUtils.containsAny(segment, '*', '?', '{')) {
+            return null;
+        }
+        return segment;
+    }
+
+    private static String firstSegment(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+}
@@ -0,0 +1,196 @@
+package vi.legend.sanzee.gateway.support.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.AsymmetricJWK;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.SecretJWK;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+
+import java.security.Key;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the UAA JWK set in memory.
+ * <p>
+ * The set is fetched on startup and then refreshed in the background, so the hot path only reads an
+ * immutable snapshot. An unknown {@code kid} (key rotation) joins the fetch in flight, or triggers an on-demand
+ * refresh limited to one per {@code minRefreshInterval} (shorter after a failed fetch) and shared by every concurrent
+ * caller.
+ */
+public class JwkSetProvider implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JwkSetProvider.class);
+
+    /**
+     * After a failed fetch an unknown {@code kid} may retry sooner than {@code minRefreshInterval}.
+     */
+    private static final long FAILED_FETCH_RETRY_MILLIS = 1000;
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final GatewaySecurityProperties.Jwt jwt;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final AtomicReference<Mono<Snapshot>> inflight = new AtomicReference<>();
+    private volatile long lastFetchTime;
+    private volatile boolean lastFetchFailed;
+    private Disposable refresher;
+
+    public JwkSetProvider(WebClient webClient, String jwkSetUri, GatewaySecurityProperties.Jwt jwt) {
+        this.webClient = webClient;
+        this.jwkSetUri = jwkSetUri;
+        this.jwt = jwt;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.refresher = Flux.interval(jwt.getRefreshInterval())
+                .startWith(0L)
+                .onBackpressureDrop()
+                .concatMap(tick -> fetch().onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    /**
+     * Find the verification key for the given {@code kid}.
+     *
+     * @param kid key id from the JWS header, may be {@code null} when the set holds a single key
+     * @return the key, or empty when it is unknown even after a refresh
+     */
+    public Mono<Key> getKey(String kid) {
+        Key key = snapshot.get().find(kid);
+        if (key != null) {
+            return Mono.just(key);
+        }
+
+        // A fetch already running (startup, background refresh or another caller) is always joined, only starting
+        // a new one is rate limited.
+        Mono<Snapshot> running = inflight.get();
+        if (running == null) {
+            long interval = lastFetchFailed ? Math.min(FAILED_FETCH_RETRY_MILLIS, jwt.getMinRefreshInterval().toMillis())
+                    : jwt.getMinRefreshInterval().toMillis();
+            if (System.currentTimeMillis() - lastFetchTime < interval) {
+                return Mono.empty();
+            }
+            running = fetch();
+        }
+
+        return running.onErrorResume(e -> Mono.empty()).mapNotNull(current -> current.find(kid));
+    }
+
+    private Mono<Snapshot> fetch() {
+        while (true) {
+            Mono<Snapshot> current = inflight.get();
+            if (current != null) {
+                return current;
+            }
+
+            Sinks.One<Snapshot> sink = Sinks.one();
+            Mono<Snapshot> created = sink.asMono();
+            if (inflight.compareAndSet(null, created)) {
+                lastFetchTime = System.currentTimeMillis();
+                webClient.get().uri(jwkSetUri)
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .map(this::parse)
+                        .doFinally(signal -> inflight.set(null))
+                        .subscribe(value -> {
+                            lastFetchFailed = false;
+                            snapshot.set(value);
+                            sink.tryEmitValue(value);
+                        }, error -> {
+                            lastFetchFailed = true;
+                            log.warn("[Sanzee Cloud] |- Fetch JWK set from [{}] failed: {}", jwkSetUri, error.getMessage());
+                            sink.tryEmitError(error);
+                        }, sink::tryEmitEmpty);
+                return created;
+            }
+        }
+    }
+
+    private Snapshot parse(String body) {
+        try {
+            Snapshot parsed = Snapshot.of(JWKSet.parse(body));
+            log.debug("[Sanzee Cloud] |- JWK set refreshed, [{}] keys available.", parsed.keys.size());
+            return parsed;
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWK set returned by " + jwkSetUri, e);
+        }
+    }
+
+    /**
+     * Immutable view of a JWK set with the Java keys already converted, so verification does not
+     * decode key material again.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), null);
+
+        private final Map<String, Key> keys;
+        private final Key single;
+
+        private Snapshot(Map<String, Key> keys, Key single) {
+            this.keys = keys;
+            this.single = single;
+        }
+
+        private static Snapshot of(JWKSet jwkSet) {
+            Map<String, Key> keys = new HashMap<>();
+            Key last = null;
+            for (JWK jwk : jwkSet.getKeys()) {
+                Key key = toKey(jwk);
+                if (key == null) {
+                    continue;
+                }
+                last = key;
+                if (StringUtils.isNotBlank(jwk.getKeyID())) {
+                    keys.put(jwk.getKeyID(), key);
+                }
+            }
+            return new Snapshot(Collections.unmodifiableMap(keys), jwkSet.getKeys().size() == 1 ? last : null);
+        }
+
+        private static Key toKey(JWK jwk) {
+            try {
+                if (jwk instanceof AsymmetricJWK asymmetric) {
+                    return asymmetric.toPublicKey();
+                }
+                if (jwk instanceof SecretJWK secret) {
+                    return secret.toSecretKey();
+                }
+            } catch (JOSEException e) {
+                log.warn("[Sanzee Cloud] |- Skip JWK [{}], can not convert it to a key.", jwk.getKeyID());
+            }
+            return null;
+        }
+
+        private Key find(String kid) {
+            if (StringUtils.isBlank(kid)) {
+                return single;
+            }
+            return keys.get(kid);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package vi.legend.sanzee.gateway.support.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import vi.legend.sanzee.gateway.properties.GatewaySecurityProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Verifies bearer tokens locally against the UAA JWK set.
+ * <p>
+ * Tokens that pass are kept in a bounded cache keyed by the SHA-256 of the raw token, until their
+ * {@code exp} (or {@code cacheTtl}, whichever comes first). A repeated token therefore costs one hash and
+ * one map lookup instead of a signature check.
+ */
+public class JwtTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenVerifier.class);
+
+    private static final String CLAIM_CLIENT_ID = "client_id";
+    private static final String CLAIM_AUTHORIZED_PARTY = "azp";
+    private static final String CLAIM_SCOPE = "scope";
+    private static final String CLAIM_TENANT_ID = "tenant_id";
+    private static final String CLAIM_OPEN_ID = "open_id";
+
+    private final JwkSetProvider jwkSetProvider;
+    private final GatewaySecurityProperties.Jwt jwt;
+    private final DefaultJWSVerifierFactory verifierFactory = new DefaultJWSVerifierFactory();
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtTokenVerifier(JwkSetProvider jwkSetProvider, GatewaySecurityProperties.Jwt jwt) {
+        this.jwkSetProvider = jwkSetProvider;
+        this.jwt = jwt;
+        this.verified = CacheBuilder.newBuilder()
+                .maximumSize(jwt.getCacheSize())
+                .expireAfterWrite(jwt.getCacheTtl())
+                .build();
+    }
+
+    /**
+     * Verify the raw JWT (without the {@code Bearer } prefix).
+     *
+     * @param token raw JWT
+     * @return the verified principal, or empty when the token is rejected
+     */
+    public Mono<VerifiedToken> verify(String token) {
+        long now = System.currentTimeMillis();
+        long clockSkew = jwt.getClockSkew().toMillis();
+
+        String cacheKey = digest(token);
+        VerifiedToken cached = verified.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now, clockSkew)) {
+                return Mono.just(cached);
+            }
+            verified.invalidate(cacheKey);
+            return Mono.empty();
+        }
+
+        SignedJWT signedJwt;
+        try {
+            signedJwt = SignedJWT.parse(token);
+        } catch (ParseException e) {
+            log.debug("[Sanzee Cloud] |- Token can not be parsed as a signed JWT.");
+            return Mono.empty();
+        }
+
+        return jwkSetProvider.getKey(signedJwt.getHeader().getKeyID())
+                .mapNotNull(key -> check(signedJwt, key, now, clockSkew))
+                .doOnNext(result -> verified.put(cacheKey, result));
+    }
+
+    private VerifiedToken check(SignedJWT signedJwt, Key key, long now, long clockSkew) {
+        try {
+            JWSVerifier verifier = verifierFactory.createJWSVerifier(signedJwt.getHeader(), key);
+            if (!signedJwt.verify(verifier)) {
+                log.debug("[Sanzee Cloud] |- Token signature is invalid.");
+                return null;
+            }
+
+            JWTClaimsSet claims = signedJwt.getJWTClaimsSet();
+
+            Date expirationTime = claims.getExpirationTime();
+            if (expirationTime != null && now - clockSkew >= expirationTime.getTime()) {
+                log.debug("[Sanzee Cloud] |- Token is expired.");
+                return null;
+            }
+
+            Date notBeforeTime = claims.getNotBeforeTime();
+            if (notBeforeTime != null && now + clockSkew < notBeforeTime.getTime()) {
+                log.debug("[Sanzee Cloud] |- Token is not active yet.");
+                return null;
+            }
+
+            if (StringUtils.isNotBlank(jwt.getIssuer()) && !Objects.equals(jwt.getIssuer(), claims.getIssuer())) {
+                log.debug("[Sanzee Cloud] |- Token issuer [{}] is not trusted.", claims.getIssuer());
+                return null;
+            }
+
+            String clientId = claims.getStringClaim(CLAIM_CLIENT_ID);
+            if (StringUtils.isBlank(clientId)) {
+                clientId = claims.getStringClaim(CLAIM_AUTHORIZED_PARTY);
+            }
+
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    clientId,
+                    scope(claims.getClaim(CLAIM_SCOPE)),
+                    claims.getStringClaim(CLAIM_TENANT_ID),
+                    claims.getStringClaim(CLAIM_OPEN_ID),
+                    expirationTime != null ? expirationTime.getTime() : Long.MAX_VALUE);
+        } catch (JOSEException | ParseException e) {
+            log.debug("[Sanzee Cloud] |- Token verification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String scope(Object value) {
+        if (value instanceof List<?> list) {
+            return StringUtils.join(list, " ");
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
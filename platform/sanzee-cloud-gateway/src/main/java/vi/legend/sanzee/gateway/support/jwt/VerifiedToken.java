@@ -0,0 +1,19 @@
+package vi.legend.sanzee.gateway.support.jwt;
+
+/**
+ * Principal extracted from a JWT whose signature and time claims have been verified.
+ *
+ * @param subject   {@code sub} claim
+ * @param clientId  {@code client_id} claim, falls back to {@code azp}
+ * @param scope     granted scopes, space separated
+ * @param tenantId  {@code tenant_id} claim
+ * @param openId    {@code open_id} claim
+ * @param expiresAt {@code exp} in epoch millis, {@code Long.MAX_VALUE} when the token has no expiry
+ */
+public record VerifiedToken(String subject, String clientId, String scope, String tenantId, String openId,
+                            long expiresAt) {
+
+    public boolean isExpired(long now, long clockSkew) {
+        return expiresAt != Long.MAX_VALUE && now - clockSkew >= expiresAt;
+    }
+}
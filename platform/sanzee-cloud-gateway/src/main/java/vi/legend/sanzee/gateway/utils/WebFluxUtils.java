@@ -1,10 +1,16 @@
 package vi.legend.sanzee.gateway.utils;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.reactive.resource.ResourceUrlProvider;
 import reactor.core.publisher.Mono;
+import vi.legend.assistant.core.json.jackson2.utils.Jackson2Utils;
+import vi.legend.assistant.definition.domain.Result;
 
 import java.util.Arrays;
 import java.util.List;
@@ -37,16 +43,20 @@ public class WebFluxUtils {
         return false;
     }
 
-//    public static Mono<Void> writeJsonResponse(ServerHttpResponse response, Result<String> result) {
-//        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
-//        response.setStatusCode(HttpStatus.valueOf(result.getStatus()));
-//
-//        String jsonResult = Jackson2Utils.toJson(result);
-//        byte[] bytes = jsonResult.getBytes(StandardCharsets.UTF_8);
-//
-//        DataBuffer buffer = response.bufferFactory().wrap(bytes);
-//        return response.writeWith(Flux.just(buffer));
-//    }
+    public static Mono<Void> writeJsonResponse(ServerHttpResponse response, Result<String> result) {
+        return writeJsonResponse(response, HttpStatus.valueOf(result.getStatus()), Jackson2Utils.toJsonBytes(result));
+    }
+
+    /**
+     * Write an already encoded JSON body, e.g. one from {@link vi.legend.assistant.core.json.jackson2.support.EncodedResultRegistry}.
+     */
+    public static Mono<Void> writeJsonResponse(ServerHttpResponse response, HttpStatus status, byte[] body) {
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.setStatusCode(status);
+
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
 
 
 }